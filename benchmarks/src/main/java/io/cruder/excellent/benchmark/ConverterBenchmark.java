@@ -0,0 +1,128 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.benchmark;
+
+import io.cruder.excellent.util.Converter;
+import io.cruder.excellent.util.DefaultConverter;
+import io.cruder.excellent.util.RowBinder;
+import io.cruder.excellent.util.RowBuffer;
+import io.cruder.excellent.util.RowView;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConverterBenchmark: Row to bean and map conversion, reflective baseline against default converter, compiled
+ * binder and raw values.
+ *
+ * @author cruder
+ * @since 2020-03-18
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterBenchmark {
+
+    private static final int ROWS = 1024;
+
+    private final List<String> headers = Arrays.asList(
+            "Account", "Name", "Quantity", "Serial", "Price", "Amount", "Booked", "Remark");
+
+    private final Converter reflective = new ReflectiveConverter();
+
+    private List<List<String>> rows;
+
+    private List<RowView> views;
+
+    private List<RowBuffer> buffers;
+
+    private RowBinder<LedgerBean> binder;
+
+    private RowBinder<LedgerBean> rawBinder;
+
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        rows = new ArrayList<>(ROWS);
+        views = new ArrayList<>(ROWS);
+        buffers = new ArrayList<>(ROWS);
+        DataFormatter formatter = new DataFormatter();
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(Arrays.asList(
+                    "AC" + i,
+                    "name " + i,
+                    String.valueOf(i % 100),
+                    String.valueOf(1_000_000L + i),
+                    String.valueOf(i * 0.25),
+                    String.valueOf(i * 1.5),
+                    String.valueOf(43891.4375 + i),
+                    i % 3 == 0 ? "" : "remark " + i));
+            views.add(RowView.of(rows.get(i)));
+
+            RowBuffer buffer = new RowBuffer((value, style) -> formatter.formatRawCellContents(value, 0, "General"),
+                    index -> null);
+            buffer.addText("AC" + i);
+            buffer.addText("name " + i);
+            buffer.addNumber(i % 100, 0);
+            buffer.addNumber(1_000_000L + i, 0);
+            buffer.addNumber(i * 0.25, 0);
+            buffer.addNumber(i * 1.5, 0);
+            buffer.addNumber(43891.4375 + i, 0);
+            buffer.addText(i % 3 == 0 ? "" : "remark " + i);
+            buffers.add(buffer);
+        }
+        binder = DefaultConverter.INSTANCE.compile(headers, LedgerBean.class);
+        rawBinder = DefaultConverter.RAW.compile(headers, LedgerBean.class);
+    }
+
+    private List<String> nextRow() {
+        return rows.get(cursor++ & (ROWS - 1));
+    }
+
+    @Benchmark
+    public LedgerBean reflectiveConvert() {
+        return reflective.convert(headers, nextRow(), LedgerBean.class);
+    }
+
+    @Benchmark
+    public LedgerBean defaultConvert() {
+        return DefaultConverter.INSTANCE.convert(headers, nextRow(), LedgerBean.class);
+    }
+
+    @Benchmark
+    public Map<String, String> defaultConvertMap() {
+        return DefaultConverter.INSTANCE.convert(headers, nextRow(), null);
+    }
+
+    @Benchmark
+    public LedgerBean compiledBind() {
+        return binder.bind(views.get(cursor++ & (ROWS - 1)));
+    }
+
+    @Benchmark
+    public LedgerBean rawBind() {
+        return rawBinder.bind(buffers.get(cursor++ & (ROWS - 1)));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.benchmark;
+
+import io.cruder.excellent.Excel;
+import io.cruder.excellent.Reader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FirstRowBenchmark: Time from opening a fixture to its first row, with reader closed right after. Grows with rows
+ * of file where the workbook is loaded or scanned before any row is read.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FirstRowBenchmark {
+
+    @Param({"xls", "xlsx", "csv"})
+    private String format;
+
+    @Param({"1000", "60000"})
+    private int rows;
+
+    @Param({"8"})
+    private int columns;
+
+    @Param({"ledger"})
+    private String types;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Fixtures.generate(format, rows, columns, types);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Benchmark
+    public Map<String, String> firstRow() {
+        try (Reader<Map<String, String>> reader = Excel.lent(file).firstRowAsHeader()) {
+            return reader.readRow().orElse(null);
+        }
+    }
+
+    @Benchmark
+    public LedgerBean firstBean() {
+        try (Reader<LedgerBean> reader = Excel.lent(file, LedgerBean.class).firstRowAsHeader()) {
+            return reader.readRow().orElse(null);
+        }
+    }
+}
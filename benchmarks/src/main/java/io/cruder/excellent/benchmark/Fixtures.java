@@ -0,0 +1,222 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.benchmark;
+
+import lombok.experimental.UtilityClass;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Fixtures: Synthetic xls, xlsx and csv files of given rows, columns and cell types, whose first row is headers.
+ * <p>Types are "ledger" for columns of {@link LedgerBean} followed by text columns, or "text", "number", "date" and
+ * "mixed" for columns of one type or of the three in turn. Text repeats every 1024 rows, as shared strings do.</p>
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+@UtilityClass
+public class Fixtures {
+
+    /**
+     * Rows of a xls sheet at most, headers included.
+     */
+    private static final int MAX_XLS_ROWS = 65_536;
+
+    private static final String[] LEDGER_TITLES = {
+            "Account", "Name", "Quantity", "Serial", "Price", "Amount", "Booked", "Remark"};
+
+    private static final String DATE_FORMAT = "yyyy-mm-dd hh:mm:ss";
+    private static final DateTimeFormatter DATE_TEXT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final LocalDateTime FIRST_DATE = LocalDateTime.of(2020, 3, 1, 10, 30);
+
+    /**
+     * Cell types a column is generated of.
+     */
+    private enum Type {
+        TEXT, NUMBER, DATE, LEDGER
+    }
+
+    /**
+     * Generate fixture into a temporary file, which caller deletes.
+     *
+     * @param format  "xls", "xlsx" or "csv"
+     * @param rows    data rows, headers excluded
+     * @param columns columns of each row
+     * @param types   cell types, see {@link Fixtures}
+     * @return temporary file
+     * @throws IOException if file can not be written
+     */
+    public static File generate(String format, int rows, int columns, String types) throws IOException {
+        Type[] layout = layout(columns, types);
+        File file = File.createTempFile(String.format("fixture-%s-%d-%d-", types, rows, columns), "." + format);
+        switch (format) {
+            case "xls":
+                if (rows >= MAX_XLS_ROWS) {
+                    throw new IllegalArgumentException("Xls sheet holds at most " + (MAX_XLS_ROWS - 1) + " rows.");
+                }
+                writeWorkbook(new HSSFWorkbook(), file, rows, layout);
+                break;
+            case "xlsx":
+                SXSSFWorkbook workbook = new SXSSFWorkbook(1000);
+                try {
+                    writeWorkbook(workbook, file, rows, layout);
+                } finally {
+                    workbook.dispose();
+                }
+                break;
+            case "csv":
+                writeCsv(file, rows, layout);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown fixture format: " + format);
+        }
+        return file;
+    }
+
+    private static Type[] layout(int columns, String types) {
+        Type[] layout = new Type[columns];
+        for (int c = 0; c < columns; c++) {
+            switch (types) {
+                case "ledger":
+                    layout[c] = c < LEDGER_TITLES.length ? Type.LEDGER : Type.TEXT;
+                    break;
+                case "mixed":
+                    layout[c] = Type.values()[c % 3];
+                    break;
+                default:
+                    layout[c] = Type.valueOf(types.toUpperCase(Locale.ROOT));
+                    break;
+            }
+        }
+        return layout;
+    }
+
+    private static String title(int column, Type type) {
+        return type == Type.LEDGER ? LEDGER_TITLES[column] : "Column" + (column + 1);
+    }
+
+    private static void writeWorkbook(Workbook workbook, File file, int rows, Type[] layout) throws IOException {
+        CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.createDataFormat().getFormat(DATE_FORMAT));
+        Sheet sheet = workbook.createSheet("Fixture");
+        Row header = sheet.createRow(0);
+        for (int c = 0; c < layout.length; c++) {
+            header.createCell(c).setCellValue(title(c, layout[c]));
+        }
+        for (int r = 0; r < rows; r++) {
+            Row row = sheet.createRow(r + 1);
+            for (int c = 0; c < layout.length; c++) {
+                Object value = value(r, c, layout[c]);
+                if (value == null) {
+                    continue;
+                }
+                Cell cell = row.createCell(c);
+                if (value instanceof Number) {
+                    cell.setCellValue(((Number) value).doubleValue());
+                } else if (value instanceof LocalDateTime) {
+                    LocalDateTime dateTime = (LocalDateTime) value;
+                    cell.setCellValue(Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant()));
+                    cell.setCellStyle(dateStyle);
+                } else {
+                    cell.setCellValue((String) value);
+                }
+            }
+        }
+        try (OutputStream os = Files.newOutputStream(file.toPath())) {
+            workbook.write(os);
+        } finally {
+            workbook.close();
+        }
+    }
+
+    private static void writeCsv(File file, int rows, Type[] layout) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            for (int c = 0; c < layout.length; c++) {
+                writer.write(c == 0 ? "" : ",");
+                writer.write(title(c, layout[c]));
+            }
+            writer.write("\r\n");
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < layout.length; c++) {
+                    Object value = value(r, c, layout[c]);
+                    writer.write(c == 0 ? "" : ",");
+                    if (value instanceof Double && ((Double) value) == Math.rint((Double) value)) {
+                        writer.write(Long.toString(((Double) value).longValue()));
+                    } else if (value instanceof LocalDateTime) {
+                        writer.write(DATE_TEXT.format((LocalDateTime) value));
+                    } else if (value != null) {
+                        writer.write(value.toString());
+                    }
+                }
+                writer.write("\r\n");
+            }
+        }
+    }
+
+    /**
+     * @return cell value of row and column, number, date, text or null for blank cell
+     */
+    private static Object value(int r, int c, Type type) {
+        switch (type) {
+            case NUMBER:
+                return r * 0.25 + c;
+            case DATE:
+                return FIRST_DATE.plusMinutes(r + c);
+            case LEDGER:
+                return ledgerValue(r, c);
+            default:
+                return "v" + ((r + c) & 1023);
+        }
+    }
+
+    private static Object ledgerValue(int r, int c) {
+        switch (c) {
+            case 0:
+                return "AC" + r;
+            case 1:
+                return "name " + (r & 1023);
+            case 2:
+                return (double) (r % 100);
+            case 3:
+                return 1_000_000.0 + r;
+            case 4:
+                return r * 0.25;
+            case 5:
+                return r * 1.5;
+            case 6:
+                return FIRST_DATE.plusMinutes(r);
+            default:
+                return r % 3 == 0 ? null : "remark " + (r & 1023);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.benchmark;
+
+import io.cruder.excellent.util.RowBatch;
+import io.cruder.excellent.util.RowBuffer;
+import io.cruder.excellent.util.SpscRing;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+/**
+ * HandoffBenchmark: Rows handed over from a producer thread to reader without parsing, the per-row
+ * {@link LinkedBlockingQueue} used by xlsx reader before against batches through {@link SpscRing}.
+ *
+ * @author cruder
+ * @since 2020-03-23
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HandoffBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    private static final int BATCH_SIZE = 512;
+
+    private static final int CACHED = 4;
+
+    @Param({"1", "8", "64"})
+    private int columns;
+
+    private final ExecutorService producer = Executors.newSingleThreadExecutor();
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        producer.shutdownNow();
+    }
+
+    private void fill(RowBuffer row, int r) {
+        for (int c = 0; c < columns; c++) {
+            row.addNumber(r + c, 0);
+        }
+    }
+
+    @Benchmark
+    public long perRowQueue() throws Exception {
+        BlockingQueue<RowBuffer> cached = new LinkedBlockingQueue<>(10);
+        BlockingQueue<RowBuffer> free = new ArrayBlockingQueue<>(12);
+        for (int i = 0; i < 12; i++) {
+            free.add(new RowBuffer(null, null));
+        }
+        RowBuffer end = new RowBuffer(null, null);
+        producer.submit(() -> {
+            for (int r = 0; r < ROWS; r++) {
+                RowBuffer row = free.take();
+                row.clear();
+                fill(row, r);
+                cached.put(row);
+            }
+            cached.put(end);
+            return null;
+        });
+        long cells = 0;
+        RowBuffer row;
+        while ((row = cached.take()) != end) {
+            cells += row.size();
+            free.put(row);
+        }
+        return cells;
+    }
+
+    @Benchmark
+    public long batchedRing() throws Exception {
+        SpscRing<RowBatch> filled = new SpscRing<>(CACHED + 2);
+        SpscRing<RowBatch> free = new SpscRing<>(CACHED + 2);
+        for (int i = 0; i < CACHED + 2; i++) {
+            free.offer(new RowBatch(BATCH_SIZE, null, null));
+        }
+        producer.submit(() -> {
+            RowBatch batch = free.take();
+            for (int r = 0; r < ROWS; r++) {
+                fill(batch.next(), r);
+                if (batch.commit()) {
+                    filled.put(batch);
+                    batch = free.take();
+                }
+            }
+            if (!batch.isEmpty()) {
+                filled.put(batch);
+            }
+            filled.close();
+            return null;
+        });
+        long cells = 0;
+        RowBatch batch;
+        while ((batch = filled.take()) != null) {
+            for (int i = 0; i < batch.size(); i++) {
+                cells += batch.get(i).size();
+            }
+            batch.clear();
+            free.put(batch);
+        }
+        return cells;
+    }
+}
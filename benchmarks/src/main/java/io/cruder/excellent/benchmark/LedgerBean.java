@@ -0,0 +1,48 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.benchmark;
+
+import io.cruder.excellent.ExcelColumn;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * LedgerBean: Bean bound by benchmarks, mixing text, numeric and date columns.
+ *
+ * @author cruder
+ * @since 2020-03-18
+ */
+@Data
+public class LedgerBean {
+    @ExcelColumn(title = "Account", order = 1)
+    private String account;
+    @ExcelColumn(title = "Name", order = 2)
+    private String name;
+    @ExcelColumn(title = "Quantity", order = 3)
+    private int quantity;
+    @ExcelColumn(title = "Serial", order = 4)
+    private long serial;
+    @ExcelColumn(title = "Price", order = 5)
+    private double price;
+    @ExcelColumn(title = "Amount", order = 6)
+    private BigDecimal amount;
+    @ExcelColumn(title = "Booked", order = 7, format = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime booked;
+    @ExcelColumn(title = "Remark", order = 8)
+    private String remark;
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.benchmark;
+
+import io.cruder.excellent.Excel;
+import io.cruder.excellent.Reader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReadBenchmark: Whole fixture read to maps, to {@link LedgerBean} and as raw rows, reported as rows per second by
+ * the "rows" counter. Run with {@code -prof gc} for allocation rate, whose normalized value is per file read.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadBenchmark {
+
+    @Param({"xls", "xlsx", "csv"})
+    private String format;
+
+    @Param({"20000"})
+    private int rows;
+
+    @Param({"8"})
+    private int columns;
+
+    @Param({"ledger"})
+    private String types;
+
+    private File file;
+
+    /**
+     * Rows read in each iteration, reported as rate.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RowCounter {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Fixtures.generate(format, rows, columns, types);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Benchmark
+    public long maps(RowCounter counter) {
+        return count(Excel.lent(file).firstRowAsHeader(), counter);
+    }
+
+    @Benchmark
+    public long beans(RowCounter counter) {
+        return count(Excel.lent(file, LedgerBean.class).firstRowAsHeader(), counter);
+    }
+
+    @Benchmark
+    public long forEachRow(RowCounter counter) {
+        long[] cells = {0};
+        try (Reader<Map<String, String>> reader = Excel.lent(file).firstRowAsHeader()) {
+            reader.forEachRow(row -> {
+                cells[0] += row.size();
+                counter.rows++;
+            });
+        }
+        return cells[0];
+    }
+
+    private static long count(Reader<?> reader, RowCounter counter) {
+        long hashes = 0;
+        try (Reader<?> read = reader) {
+            for (Object row : read) {
+                hashes += row.hashCode();
+                counter.rows++;
+            }
+        }
+        return hashes;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.benchmark;
+
+import io.cruder.excellent.ExcelColumn;
+import io.cruder.excellent.util.Constant;
+import io.cruder.excellent.util.Converter;
+import io.cruder.excellent.util.Reflects;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * ReflectiveConverter: Reflective row converter as shipped before binders were compiled, kept as benchmark baseline.
+ *
+ * @author cruder
+ * @since 2020-03-18
+ */
+public class ReflectiveConverter implements Converter {
+
+    private final ConcurrentMap<String, List<Object[]>> classSetterCache = new ConcurrentHashMap<>();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T convert(List<String> headers, List<String> rowCells, Class<T> clazz) {
+        T bean = null;
+        Map<String, Integer> headerIndex = IntStream.range(0, headers.size())
+                .boxed()
+                .collect(Collectors.toMap(headers::get, Function.identity()));
+        try {
+            if (clazz == null) {
+                Map<String, String> map = new LinkedHashMap<>();
+                headerIndex.forEach((header, index) -> map.put(header,
+                        rowCells.size() > index ? rowCells.get(index) : Constant.EMPTY));
+                return (T) map;
+            }
+
+            bean = clazz.newInstance();
+
+            String cachedKey = clazz.getName();
+            List<Object[]> titledMethods;
+            if (classSetterCache.containsKey(cachedKey) && classSetterCache.get(cachedKey) != null) {
+                titledMethods = classSetterCache.get(cachedKey);
+            } else {
+                titledMethods = Stream.of(clazz.getDeclaredFields())
+                        .map(field -> {
+                            String title = field.getName();
+                            String format = null;
+                            if (field.isAnnotationPresent(ExcelColumn.class)) {
+                                ExcelColumn column = field.getAnnotation(ExcelColumn.class);
+                                if (!column.title().isEmpty()) {
+                                    title = column.title();
+                                }
+                                if (!column.format().isEmpty()) {
+                                    format = column.format();
+                                }
+                            }
+                            return new Object[]{title, format, Reflects.resolveSetter(field, clazz)};
+                        })
+                        .collect(Collectors.toList());
+                classSetterCache.put(cachedKey, titledMethods);
+            }
+
+            for (Object[] titledMethod : titledMethods) {
+                Method method = (Method) titledMethod[2];
+                Class<?>[] parameterTypes = method.getParameterTypes();
+                if (parameterTypes.length > 1) {
+                    throw new RuntimeException(String.format("Method %s is not a setter.", method.getName()));
+                }
+                Class<?> parameterType = parameterTypes[0];
+                Integer index = headerIndex.get((String) titledMethod[0]);
+                String val = index < rowCells.size() ? rowCells.get(index) : null;
+                if (val != null) {
+                    doInvocation(bean, method, (String) titledMethod[1], parameterType, val);
+                }
+            }
+        } catch (Exception e) {
+            // ignore, as the original converter logged and returned the bean.
+        }
+        return bean;
+    }
+
+    private <T> void doInvocation(T bean, Method method, String format, Class<?> parameterType, String val)
+            throws ReflectiveOperationException {
+        if (parameterType.equals(String.class) || parameterType.equals(Object.class)) {
+            method.invoke(bean, val);
+        } else if (Number.class.isAssignableFrom(parameterType)) {
+            Constructor<?> constructor = parameterType.getConstructor(String.class);
+            if (parameterType.equals(Byte.class) || !val.isEmpty()) {
+                method.invoke(bean, constructor.newInstance(val));
+            }
+        } else if (parameterType.isPrimitive()) {
+            Object primitiveValue = getPrimitiveValue(parameterType, val);
+            if (primitiveValue != null) {
+                method.invoke(bean, primitiveValue);
+            }
+        } else if (parameterType.equals(Date.class)) {
+            Double excelDate = toExcelDate(val);
+            Date date = excelDate != null ? DateUtil.getJavaDate(Double.parseDouble(val))
+                    : Date.from(LocalDateTime.parse(val, DateTimeFormatter.ofPattern(
+                    format == null ? Constant.DEFAULT_DATETIME_FORMAT : format))
+                    .atZone(ZoneId.systemDefault()).toInstant());
+            method.invoke(bean, date);
+        } else if (parameterType.equals(LocalDateTime.class)) {
+            Double excelDate = toExcelDate(val);
+            method.invoke(bean, excelDate == null
+                    ? LocalDateTime.parse(val, DateTimeFormatter.ofPattern(
+                    format == null ? Constant.DEFAULT_DATETIME_FORMAT : format))
+                    : DateUtil.getJavaDate(excelDate).toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime());
+        } else if (parameterType.equals(LocalDate.class)) {
+            Double excelDate = toExcelDate(val);
+            method.invoke(bean, excelDate == null
+                    ? LocalDate.parse(val, DateTimeFormatter.ofPattern(
+                    format == null ? Constant.DEFAULT_DATETIME_FORMAT : format))
+                    : DateUtil.getJavaDate(excelDate).toInstant().atZone(ZoneId.systemDefault()).toLocalDate());
+        }
+    }
+
+    private Object getPrimitiveValue(Class<?> primitiveType, String val) {
+        if (primitiveType.equals(Byte.TYPE)) {
+            return Byte.valueOf(val);
+        }
+        if (val.isEmpty()) {
+            return null;
+        }
+        if (primitiveType.equals(Short.TYPE)) {
+            return new BigDecimal(val).shortValue();
+        }
+        if (primitiveType.equals(Integer.TYPE)) {
+            return new BigDecimal(val).intValue();
+        }
+        if (primitiveType.equals(Long.TYPE)) {
+            return new BigDecimal(val).longValue();
+        }
+        if (primitiveType.equals(Float.TYPE)) {
+            return new BigDecimal(val).floatValue();
+        }
+        if (primitiveType.equals(Double.TYPE)) {
+            return new BigDecimal(val).doubleValue();
+        }
+        return null;
+    }
+
+    private Double toExcelDate(String val) {
+        try {
+            return Double.parseDouble(val);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
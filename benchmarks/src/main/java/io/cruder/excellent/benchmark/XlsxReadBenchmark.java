@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.benchmark;
+
+import io.cruder.excellent.Excel;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * XlsxReadBenchmark: Whole xlsx sheet read by {@link io.cruder.excellent.Reader#forEachRow}, for hand-off cost
+ * between parse thread and reader. Batch size 1 hands over every row alone.
+ *
+ * @author cruder
+ * @since 2020-03-23
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XlsxReadBenchmark {
+
+    private static final int ROWS = 50_000;
+
+    @Param({"1", "8", "64"})
+    private int columns;
+
+    @Param({"1", "512"})
+    private int batchSize;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = File.createTempFile("xlsx-read-" + columns + "-", ".xlsx");
+        SXSSFWorkbook workbook = new SXSSFWorkbook(1000);
+        try (OutputStream os = new FileOutputStream(file)) {
+            Sheet sheet = workbook.createSheet();
+            for (int r = 0; r < ROWS; r++) {
+                Row row = sheet.createRow(r);
+                for (int c = 0; c < columns; c++) {
+                    Cell cell = row.createCell(c);
+                    if ((c & 1) == 0) {
+                        cell.setCellValue(r * 0.5 + c);
+                    } else {
+                        cell.setCellValue("v" + (r & 1023));
+                    }
+                }
+            }
+            workbook.write(os);
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Benchmark
+    public long forEachRow() {
+        long[] cells = {0};
+        Excel.lent(file).batchSize(batchSize).forEachRow(row -> cells[0] += row.size());
+        return cells[0];
+    }
+}
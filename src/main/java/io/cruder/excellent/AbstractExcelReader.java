@@ -15,14 +15,25 @@
 
 package io.cruder.excellent;
 
+import io.cruder.excellent.exception.ExcelReadException;
+import io.cruder.excellent.pojo.Sheet;
 import io.cruder.excellent.util.Constant;
+import io.cruder.excellent.util.ConvertStage;
 import io.cruder.excellent.util.Converter;
 import io.cruder.excellent.util.DefaultConverter;
-import lombok.Data;
+import io.cruder.excellent.util.DuplicateHeaderPolicy;
+import io.cruder.excellent.util.MissingColumnPolicy;
+import io.cruder.excellent.util.ParseExecutors;
+import io.cruder.excellent.util.RowBinder;
+import io.cruder.excellent.util.RowConsumer;
+import io.cruder.excellent.util.RowSpliterator;
+import io.cruder.excellent.util.RowView;
 import lombok.Getter;
 import lombok.experimental.Accessors;
 
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
 
 /**
  * AbstractExcelReader: Abstract implement excel reader.
@@ -30,22 +41,115 @@ import java.util.*;
  * @author cruder
  * @since 2019-04-11
  */
-@Data
 public abstract class AbstractExcelReader<T> implements Reader<T> {
 
     /**
      * Data head.
      */
+    @Getter
     protected List<String> headers = new ArrayList<>();
     /**
      * If excel has head, take 1st row as head information.
      */
+    @Getter
     protected boolean firstRowAsHeader = false;
     protected boolean headerConfirmed = false;
     /**
      * Row data converter.
      */
+    @Getter
     protected Converter converter = DefaultConverter.INSTANCE;
+    /**
+     * Row binder compiled from converter for current headers.
+     */
+    protected RowBinder<T> binder;
+    /**
+     * Headers planned for binder, where headers of columns not to read are null. Resolved once per header layout.
+     */
+    private List<String> plannedHeaders;
+    /**
+     * Policies of duplicate headers and of titles without column.
+     */
+    protected DuplicateHeaderPolicy duplicateHeaders = DuplicateHeaderPolicy.FAIL;
+    protected MissingColumnPolicy missingColumns = MissingColumnPolicy.IGNORE;
+    /**
+     * Rows are read to be converted, so binder is compiled as soon as headers are confirmed.
+     */
+    private boolean converting = false;
+    /**
+     * Rows of one batch handed over by parse thread.
+     */
+    protected int batchSize = Constant.DEFAULT_BATCH_SIZE;
+
+    /**
+     * Delimiter of fields in delimited text.
+     */
+    protected char delimiter = Constant.COMMA;
+
+    /**
+     * Parse sheets in parallel, and whether rows are merged in sheet order.
+     */
+    protected boolean parallelSheets = false;
+    protected boolean inSheetOrder = true;
+
+    /**
+     * Selected sheets by name or number, all sheets are read if both are empty.
+     */
+    protected Set<String> sheetNames = new HashSet<>();
+    protected Set<Integer> sheetNos = new HashSet<>();
+
+    /**
+     * Titles of columns to read, all columns are read if empty.
+     */
+    protected Set<String> columns = new HashSet<>();
+
+    /**
+     * Projected columns, null if all columns are read. Set once headers are known, and read by parse threads.
+     */
+    private volatile boolean[] projection;
+
+    /**
+     * Rows to skip and to read after them, and filter of rows tested before they are counted.
+     */
+    protected long skipRows = 0;
+    protected long limitRows = Long.MAX_VALUE;
+    protected Predicate<RowView> rowFilter;
+    private long passedRows;
+
+    /**
+     * Parse on background thread ahead of reads.
+     */
+    protected boolean readAhead = false;
+
+    /**
+     * Share workbook globals through cache.
+     */
+    protected boolean cacheGlobals = false;
+
+    /**
+     * Convert rows on workers of executor if workers is positive, and whether objects are kept in row order.
+     */
+    protected Executor convertExecutor;
+    protected int convertWorkers = 0;
+    protected boolean inRowOrder = true;
+    private ConvertStage<T> convertStage;
+
+    /**
+     * Executor of parse tasks, and threads running them for this reader, guarded by itself.
+     */
+    protected Executor executor = ParseExecutors.DEFAULT;
+    private final Set<Thread> parseThreads = new HashSet<>();
+
+    /**
+     * Reading is cancelled, may be set by any thread.
+     */
+    protected volatile boolean cancelled = false;
+
+    /**
+     * Limit of rows is reached, parsing stops as if cancelled while rows read are still valid.
+     */
+    protected volatile boolean limitReached = false;
+
     /**
      * Row class.
      */
@@ -61,6 +165,7 @@ public abstract class AbstractExcelReader<T> implements Reader<T> {
     public Reader<T> firstRowAsHeader() {
         headerConfirmed = false;
         firstRowAsHeader = true;
+        resetBinder();
         return this;
     }
 
@@ -69,6 +174,7 @@ public abstract class AbstractExcelReader<T> implements Reader<T> {
         if (header != null && header.length > 0) {
             headerConfirmed = true;
             headers.addAll(Arrays.asList(header));
+            resetBinder();
         }
         return this;
     }
@@ -76,15 +182,418 @@ public abstract class AbstractExcelReader<T> implements Reader<T> {
     @Override
     public Reader<T> converter(Converter converter) {
         this.converter = converter;
+        resetBinder();
+        return this;
+    }
+
+    @Override
+    public Reader<T> rawValues() {
+        return converter(DefaultConverter.RAW);
+    }
+
+    @Override
+    public Reader<T> batchSize(int rows) {
+        if (rows <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        this.batchSize = rows;
+        return this;
+    }
+
+    @Override
+    public Reader<T> delimiter(char delimiter) {
+        if (delimiter == '"' || delimiter == '\r' || delimiter == '\n' || delimiter >= 0x80) {
+            throw new IllegalArgumentException("Delimiter must be an ascii char other than quote and line break.");
+        }
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    @Override
+    public Reader<T> parallelSheets(boolean inSheetOrder) {
+        this.parallelSheets = true;
+        this.inSheetOrder = inSheetOrder;
+        return this;
+    }
+
+    @Override
+    public Reader<T> sheetNames(String... names) {
+        sheetNames.addAll(Arrays.asList(names));
+        return this;
+    }
+
+    @Override
+    public Reader<T> sheetNos(int... sheetNos) {
+        for (int sheetNo : sheetNos) {
+            this.sheetNos.add(sheetNo);
+        }
+        return this;
+    }
+
+    @Override
+    public Reader<T> columns(String... titles) {
+        columns.addAll(Arrays.asList(titles));
+        resetBinder();
+        return this;
+    }
+
+    @Override
+    public Reader<T> duplicateHeaders(DuplicateHeaderPolicy policy) {
+        this.duplicateHeaders = Objects.requireNonNull(policy);
+        resetBinder();
+        return this;
+    }
+
+    @Override
+    public Reader<T> missingColumns(MissingColumnPolicy policy) {
+        this.missingColumns = Objects.requireNonNull(policy);
+        resetBinder();
+        return this;
+    }
+
+    @Override
+    public Reader<T> skip(long rows) {
+        if (rows < 0) {
+            throw new IllegalArgumentException("Rows to skip must not be negative.");
+        }
+        this.skipRows = rows;
+        return this;
+    }
+
+    @Override
+    public Reader<T> limit(long rows) {
+        if (rows < 0) {
+            throw new IllegalArgumentException("Limit of rows must not be negative.");
+        }
+        this.limitRows = rows;
+        return this;
+    }
+
+    @Override
+    public Reader<T> filter(Predicate<RowView> predicate) {
+        this.rowFilter = rowFilter == null ? predicate : rowFilter.and(predicate);
+        return this;
+    }
+
+    @Override
+    public Reader<T> readAhead() {
+        this.readAhead = true;
+        return this;
+    }
+
+    @Override
+    public Reader<T> cacheGlobals() {
+        this.cacheGlobals = true;
+        return this;
+    }
+
+    @Override
+    public Reader<T> parallelConvert(Executor executor, int workers, boolean inRowOrder) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Workers must be positive.");
+        }
+        this.convertExecutor = executor;
+        this.convertWorkers = workers;
+        this.inRowOrder = inRowOrder;
+        return this;
+    }
+
+    @Override
+    public Reader<T> executor(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "Executor must not be null.");
+        return this;
+    }
+
+    @Override
+    public Reader<T> virtualThreads() {
+        this.executor = ParseExecutors.virtualThreads();
         return this;
     }
 
+    @Override
+    public void cancel() {
+        cancelled = true;
+        synchronized (parseThreads) {
+            parseThreads.forEach(Thread::interrupt);
+        }
+    }
+
+    @Override
+    public void close() {
+        cancel();
+        boolean interrupted = false;
+        synchronized (parseThreads) {
+            // Closing on a parse thread does not wait for itself.
+            while (!parseThreads.isEmpty() && !parseThreads.equals(Collections.singleton(Thread.currentThread()))) {
+                try {
+                    parseThreads.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        release();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Release files and buffers held by reader, called by {@link AbstractExcelReader#close()} once parse tasks are
+     * stopped, may be called more than once.
+     */
+    protected void release() {
+    }
+
+    /**
+     * Run parse task on executor, its thread is interrupted by {@link AbstractExcelReader#cancel()} while running.
+     *
+     * @param task parse task
+     */
+    protected void execute(Runnable task) {
+        executor.execute(() -> {
+            Thread thread = Thread.currentThread();
+            synchronized (parseThreads) {
+                // Task started after cancel has nothing to do, and would touch what close releases.
+                if (cancelled) {
+                    return;
+                }
+                parseThreads.add(thread);
+            }
+            try {
+                task.run();
+            } finally {
+                synchronized (parseThreads) {
+                    parseThreads.remove(thread);
+                    parseThreads.notifyAll();
+                    // Clear interruption aimed at this task, thread may go on with tasks of others.
+                    Thread.interrupted();
+                }
+            }
+        });
+    }
+
+    /**
+     * Whether parsing should stop, as reading is cancelled or limit of rows is reached.
+     *
+     * @return true if parse threads should stop
+     */
+    protected boolean isStopped() {
+        return cancelled || limitReached;
+    }
+
+    /**
+     * Whether sheet is selected to read.
+     *
+     * @param sheet sheet
+     * @return true if no sheet is selected or sheet matches name or number
+     */
+    protected boolean isSelected(Sheet sheet) {
+        if (sheetNames.isEmpty() && sheetNos.isEmpty()) {
+            return true;
+        }
+        return sheetNames.contains(sheet.getSheetName()) || sheetNos.contains(sheet.getSheetNo());
+    }
+
+    /**
+     * Take header row as headers, and resolve columns of following rows once: binder is compiled now if rows are
+     * converted, and columns selected by title are projected otherwise.
+     *
+     * @param header cells of header row
+     */
+    protected void confirmHeaders(List<String> header) {
+        headers.addAll(header);
+        headerConfirmed = true;
+        resetBinder();
+        if (converting) {
+            binder();
+        } else if (!columns.isEmpty()) {
+            projection = project(null, plannedHeaders());
+        }
+    }
+
+    /**
+     * Convert row by binder, which is compiled once headers are known.
+     *
+     * @param row row cells
+     * @return a row.
+     */
+    protected T convert(RowView row) {
+        return binder().bind(row);
+    }
+
+    /**
+     * @return binder of current headers, compiled once for all rows.
+     */
+    protected RowBinder<T> binder() {
+        if (binder == null) {
+            List<String> planned = plannedHeaders();
+            RowBinder<T> compiled = converter.compile(planned, parameterizedType);
+            checkMissing(compiled);
+            binder = compiled;
+            projection = project(binder.columns(), planned);
+        }
+        return binder;
+    }
+
+    private void resetBinder() {
+        binder = null;
+        plannedHeaders = null;
+    }
+
+    /**
+     * @return headers planned by selected columns and duplicate policy, where headers of columns not to read and
+     * blank headers are null.
+     */
+    private List<String> plannedHeaders() {
+        if (plannedHeaders != null) {
+            return plannedHeaders;
+        }
+        List<String> planned = new ArrayList<>(headers.size());
+        Map<String, Integer> seen = new HashMap<>(headers.size() * 2);
+        for (String header : headers) {
+            boolean read = header != null && !header.isEmpty() && (columns.isEmpty() || columns.contains(header));
+            if (!read) {
+                planned.add(null);
+                continue;
+            }
+            // Duplicates are left to binders to fail on.
+            Integer first = duplicateHeaders == DuplicateHeaderPolicy.FAIL ? null : seen.putIfAbsent(header,
+                    planned.size());
+            if (first == null) {
+                planned.add(header);
+            } else if (duplicateHeaders == DuplicateHeaderPolicy.FIRST) {
+                planned.add(null);
+            } else {
+                planned.set(first, null);
+                seen.put(header, planned.size());
+                planned.add(header);
+            }
+        }
+        plannedHeaders = Collections.unmodifiableList(planned);
+        return plannedHeaders;
+    }
+
+    /**
+     * Fail on titles without column by {@link MissingColumnPolicy#FAIL}.
+     *
+     * @param compiled binder compiled for headers
+     */
+    private void checkMissing(RowBinder<T> compiled) {
+        if (missingColumns != MissingColumnPolicy.FAIL) {
+            return;
+        }
+        Set<String> missing = new LinkedHashSet<>(compiled.missing());
+        for (String column : columns) {
+            if (!headers.contains(column)) {
+                missing.add(column);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new ExcelReadException(String.format("Missing columns %s.", missing));
+        }
+    }
+
+    /**
+     * Project columns read by binder, or columns of non-null headers.
+     *
+     * @param read    columns read by binder, null if any column may be read
+     * @param headers projected headers
+     * @return projection, null if all columns are read
+     */
+    private boolean[] project(int[] read, List<String> headers) {
+        if (read == null && columns.isEmpty()) {
+            return null;
+        }
+        boolean[] projected = new boolean[headers.size()];
+        if (read == null) {
+            for (int i = 0; i < projected.length; i++) {
+                projected[i] = headers.get(i) != null;
+            }
+        } else {
+            for (int column : read) {
+                projected[column] = true;
+            }
+        }
+        return projected;
+    }
+
+    /**
+     * Whether cells of column should be read, parse threads leave other cells blank.
+     *
+     * @param column column index, starting from 0
+     * @return true if column is projected or projection is not known yet
+     */
+    protected boolean isProjected(int column) {
+        boolean[] projected = projection;
+        return projected == null || (column < projected.length && projected[column]);
+    }
+
+    /**
+     * Read next data row, header rows are taken by reader itself.
+     *
+     * @return row which is valid until next invocation, null if there is no more row.
+     */
+    protected abstract RowView nextRow();
+
+    /**
+     * Read next data row which passes filter, skip and limit.
+     * <p>Parse threads are stopped as soon as the last row is read, and reader is asked once more for a row so
+     * that it can release what it holds.</p>
+     *
+     * @return row which is valid until next invocation, null if there is no more row.
+     */
+    private RowView nextPassedRow() {
+        if (limitReached || passedRows - skipRows >= limitRows) {
+            limitReached = true;
+            nextRow();
+            return null;
+        }
+        RowView row;
+        while ((row = nextRow()) != null) {
+            if (rowFilter != null && !rowFilter.test(row)) {
+                continue;
+            }
+            if (++passedRows <= skipRows) {
+                continue;
+            }
+            if (passedRows - skipRows >= limitRows) {
+                limitReached = true;
+            }
+            return row;
+        }
+        return null;
+    }
+
     /**
      * Do read operation.
      *
      * @return a row.
      */
-    public abstract T doRead();
+    public T doRead() {
+        converting = true;
+        if (convertWorkers > 0) {
+            if (convertStage == null) {
+                convertStage = new ConvertStage<>(this::nextPassedRow, this::binder, convertExecutor, convertWorkers,
+                        batchSize, inRowOrder);
+            }
+            return cancelled ? null : convertStage.next();
+        }
+        RowView row = nextPassedRow();
+        return row == null ? null : convert(row);
+    }
+
+    @Override
+    public void forEachRow(RowConsumer consumer) {
+        RowView row;
+        while ((row = nextPassedRow()) != null) {
+            if (projection == null && !columns.isEmpty()) {
+                // Headers are known now, following rows are projected.
+                projection = project(null, plannedHeaders());
+            }
+            consumer.accept(row);
+        }
+    }
 
     @Override
     public Optional<T> readRow() {
@@ -96,41 +605,54 @@ public abstract class AbstractExcelReader<T> implements Reader<T> {
         return new Iterator<T>() {
 
             /**
-             * current row.
-             */
-            private T curr;
-
-            /**
-             * If there is next record.
+             * Row read ahead by hasNext, null if not read yet.
              */
-            private boolean hasNext = true;
+            private T next;
 
             @Override
             public boolean hasNext() {
-                Optional<T> optional = readRow();
-                hasNext = optional.isPresent();
-                if (hasNext) {
-                    curr = optional.get();
+                if (next == null) {
+                    next = doRead();
                 }
-                return hasNext;
+                return next != null;
             }
 
             @Override
             public T next() {
-                if (!hasNext) {
+                if (!hasNext()) {
                     throw new NoSuchElementException();
-                } else {
-                    if (curr == null && !hasNext()) {
-                        throw new NoSuchElementException();
-                    }
                 }
-                T prev = curr;
-                curr = null;
-                return prev;
+                T curr = next;
+                next = null;
+                return curr;
             }
         };
     }
 
+    /**
+     * Spliterator which splits off batches of {@link AbstractExcelReader#batchSize} growing rows, so that parallel
+     * stream spreads them across workers. Rows are ordered unless sheets or conversions are not kept in order.
+     *
+     * @return spliterator
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        boolean ordered = (!parallelSheets || inSheetOrder) && (convertWorkers == 0 || inRowOrder);
+        return new RowSpliterator<>(this::doRead, () -> {
+            long rows = estimateRows();
+            return rows == Long.MAX_VALUE ? rows : Math.min(Math.max(rows - skipRows, 0), limitRows);
+        }, batchSize, ordered);
+    }
+
+    /**
+     * Estimate rows of selected sheets without reading them, used as size of spliterator.
+     *
+     * @return upper bound of rows, {@link Long#MAX_VALUE} if unknown
+     */
+    protected long estimateRows() {
+        return Long.MAX_VALUE;
+    }
+
     /**
      * Convert non-negative number which less than 676 to letter.
      *
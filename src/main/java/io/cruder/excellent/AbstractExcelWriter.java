@@ -0,0 +1,207 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import io.cruder.excellent.exception.ExcelWriteException;
+import io.cruder.excellent.util.CellSink;
+import io.cruder.excellent.util.Constant;
+import io.cruder.excellent.util.RowEncoder;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * AbstractExcelWriter: Abstract implement excel writer, which encodes rows into cells of the sink of implement.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public abstract class AbstractExcelWriter<T> implements Writer<T> {
+
+    /**
+     * Default name of sheet written.
+     */
+    private static final String DEFAULT_SHEET_NAME = "Sheet1";
+
+    /**
+     * Map keys written as columns, and whether titles of columns are written as the first row.
+     */
+    @Getter
+    protected List<String> headers = new ArrayList<>();
+    @Getter
+    protected boolean writeHeader = true;
+
+    @Getter
+    protected String sheetName = DEFAULT_SHEET_NAME;
+
+    /**
+     * Distinct strings shared at most, 0 if all strings are written inline.
+     */
+    @Getter
+    protected int sharedStringCapacity = 0;
+
+    /**
+     * Delimiter of fields in delimited text.
+     */
+    protected char delimiter = Constant.COMMA;
+
+    /**
+     * Encoder compiled at the first write, so that settings are settled.
+     */
+    private RowEncoder<T> encoder;
+    private boolean closed;
+
+    /**
+     * Row class, null for rows of map.
+     */
+    @Getter
+    private final Class<T> parameterizedType;
+
+    public AbstractExcelWriter(Class<T> parameterizedType) {
+        this.parameterizedType = parameterizedType;
+    }
+
+    @Override
+    public Writer<T> headers(String... headers) {
+        this.headers = new ArrayList<>(Arrays.asList(headers));
+        return this;
+    }
+
+    @Override
+    public Writer<T> withoutHeader() {
+        this.writeHeader = false;
+        return this;
+    }
+
+    @Override
+    public Writer<T> sheetName(String sheetName) {
+        this.sheetName = Objects.requireNonNull(sheetName, "Sheet name must not be null.");
+        return this;
+    }
+
+    @Override
+    public Writer<T> sharedStrings(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity of shared strings must not be negative.");
+        }
+        this.sharedStringCapacity = capacity;
+        return this;
+    }
+
+    @Override
+    public Writer<T> delimiter(char delimiter) {
+        if (delimiter == '"' || delimiter == '\r' || delimiter == '\n' || delimiter >= 0x80) {
+            throw new IllegalArgumentException("Delimiter must be an ascii char other than quote and line break.");
+        }
+        this.delimiter = delimiter;
+        return this;
+    }
+
+    @Override
+    public void write(T row) {
+        if (closed) {
+            throw new IllegalStateException("Writer is closed.");
+        }
+        try {
+            if (encoder == null) {
+                start(row);
+            }
+            CellSink cells = startRow();
+            try {
+                encoder.encode(row, cells);
+            } catch (RuntimeException | Error e) {
+                // Cells written so far are dropped, so that rows before still make a valid sheet.
+                abortRow();
+                throw e;
+            }
+            endRow();
+        } catch (IOException e) {
+            throw new ExcelWriteException("Write excel row failure.", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (encoder == null) {
+                // Titles of beans or of given headers are written even if there is no row.
+                start(null);
+            }
+            finish();
+        } catch (IOException e) {
+            throw new ExcelWriteException("Complete excel workbook failure.", e);
+        }
+    }
+
+    /**
+     * Compile encoder and write titles.
+     *
+     * @param first the first row, null if no row is written
+     */
+    private void start(T first) throws IOException {
+        List<String> layout = headers;
+        if (layout.isEmpty() && first instanceof Map) {
+            layout = new ArrayList<>();
+            for (Object key : ((Map<?, ?>) first).keySet()) {
+                layout.add(String.valueOf(key));
+            }
+        }
+        encoder = RowEncoder.compile(parameterizedType, layout);
+        startSheet();
+        List<String> titles = encoder.titles();
+        if (writeHeader && !titles.isEmpty()) {
+            CellSink cells = startRow();
+            titles.forEach(cells::text);
+            endRow();
+        }
+    }
+
+    /**
+     * Start the sheet, before any row.
+     */
+    protected abstract void startSheet() throws IOException;
+
+    /**
+     * Start next row.
+     *
+     * @return cells of row
+     */
+    protected abstract CellSink startRow() throws IOException;
+
+    /**
+     * Row is complete.
+     */
+    protected abstract void endRow() throws IOException;
+
+    /**
+     * Row failed to encode, drop what is written since it started.
+     */
+    protected abstract void abortRow();
+
+    /**
+     * Complete workbook and close output, called once.
+     */
+    protected abstract void finish() throws IOException;
+}
@@ -15,18 +15,30 @@
 
 package io.cruder.excellent;
 
+import io.cruder.excellent.csv.CsvReader;
+import io.cruder.excellent.csv.CsvWriter;
+import io.cruder.excellent.exception.ExcelReadException;
 import io.cruder.excellent.exception.FileNotSupportedException;
 import io.cruder.excellent.hssf.XlsReader;
 import io.cruder.excellent.util.ExcelTypeEnum;
 import io.cruder.excellent.xssf.XlsxReader;
+import io.cruder.excellent.xssf.XlsxWriter;
 import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.util.IOUtils;
 
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * io.cruder.excellent.Excel: An excel tool name.
@@ -80,6 +92,66 @@ public class Excel {
         return lent(file.getPath(), new FileInputStream(file), clazz);
     }
 
+    /**
+     * Open excel reader.
+     *
+     * @param path file path
+     * @return ExcelField reader.
+     */
+    public static Reader<Map<String, String>> lent(Path path) {
+        return lent(path, null);
+    }
+
+    /**
+     * Open excel reader, xlsx file is memory mapped.
+     *
+     * @param path  file path
+     * @param clazz target class
+     * @return ExcelField reader.
+     */
+    @SneakyThrows
+    public static <E> Reader<E> lent(Path path, Class<E> clazz) {
+        return lent(path.toString(), Files.newInputStream(path), clazz);
+    }
+
+    /**
+     * Open excel reader over file channel, xlsx file is memory mapped and xls file is read at random.
+     *
+     * @param channel file channel
+     * @param clazz   target class
+     * @return ExcelField reader.
+     */
+    public static <E> Reader<E> lent(FileChannel channel, Class<E> clazz) {
+        return lent(channel, ExcelTypeEnum.valueOf(channel), clazz);
+    }
+
+    /**
+     * Open excel reader of given type over file channel, xlsx and csv file is memory mapped and xls file is read at
+     * random. Csv is read only this way or by file name, since it has no magic to tell.
+     *
+     * @param channel file channel
+     * @param type    excel type
+     * @param clazz   target class
+     * @return ExcelField reader.
+     */
+    public static <E> Reader<E> lent(FileChannel channel, ExcelTypeEnum type, Class<E> clazz) {
+        Objects.requireNonNull(type, "Excel type must not be null.");
+        try {
+            if (type == ExcelTypeEnum.XLS) {
+                return new XlsReader<>(new POIFSFileSystem(channel, true), clazz);
+            } else if (type == ExcelTypeEnum.CSV) {
+                return new CsvReader<>(channel, clazz);
+            } else {
+                return new XlsxReader<>(channel, clazz);
+            }
+        } catch (ExcelReadException e) {
+            // File of supported type but corrupted.
+            throw e;
+        } catch (Exception e) {
+            throw new FileNotSupportedException("The file not xls or xlsx or csv, please re-select.", e);
+        }
+    }
+
     /**
      * Open excel reader.
      *
@@ -101,18 +173,110 @@ public class Excel {
      * @return ExcelField reader.
      */
     public static <E> Reader<E> lent(String filePath, InputStream inputStream, Class<E> clazz) {
-        try (BufferedInputStream bis = new BufferedInputStream(inputStream)) {
-            ExcelTypeEnum type = ExcelTypeEnum.valueOf(bis);
-            if (type == ExcelTypeEnum.XLS) {
-                return new XlsReader<>(bis, clazz);
-            } else if (type == ExcelTypeEnum.XLSX) {
-                return new XlsxReader<>(filePath, bis, clazz);
-            } else {
-                return null;
+        return lent(filePath, inputStream, null, clazz);
+    }
+
+    /**
+     * Open excel reader of given type, csv stream is read only this way or by file name, since it has no magic to
+     * tell.
+     *
+     * @param inputStream input stream
+     * @param type        excel type
+     * @param clazz       target class
+     * @return ExcelField reader.
+     */
+    public static <E> Reader<E> lent(InputStream inputStream, ExcelTypeEnum type, Class<E> clazz) {
+        return lent(null, inputStream, Objects.requireNonNull(type, "Excel type must not be null."), clazz);
+    }
+
+    private static <E> Reader<E> lent(String filePath, InputStream inputStream, ExcelTypeEnum given, Class<E> clazz) {
+        BufferedInputStream bis = new BufferedInputStream(inputStream);
+        try {
+            ExcelTypeEnum type = given != null ? given : ExcelTypeEnum.valueOf(filePath, bis);
+            if (type == ExcelTypeEnum.CSV) {
+                // Csv stream is parsed as it is read, and closed by reader.
+                return new CsvReader<>(filePath, bis, clazz);
             }
+            try (InputStream in = bis) {
+                if (type == ExcelTypeEnum.XLS) {
+                    return new XlsReader<>(in, clazz);
+                }
+                return new XlsxReader<>(filePath, in, clazz);
+            }
+        } catch (ExcelReadException e) {
+            // File of supported type but corrupted.
+            IOUtils.closeQuietly(bis);
+            throw e;
         } catch (Exception e) {
+            IOUtils.closeQuietly(bis);
             throw new FileNotSupportedException("The file not xls or xlsx or csv, please re-select.", e);
         }
     }
 
+    /**
+     * Open xlsx writer of map rows.
+     *
+     * @param outputStream output stream, closed once writer is closed
+     * @return excel writer.
+     */
+    public static Writer<Map<String, ?>> writer(OutputStream outputStream) {
+        return writer(outputStream, null);
+    }
+
+    /**
+     * Open xlsx writer.
+     *
+     * @param outputStream output stream, closed once writer is closed
+     * @param clazz        row class, null for rows of map
+     * @return excel writer.
+     */
+    public static <E> Writer<E> writer(OutputStream outputStream, Class<E> clazz) {
+        return writer(outputStream, ExcelTypeEnum.XLSX, clazz);
+    }
+
+    /**
+     * Open excel writer of given type.
+     *
+     * @param outputStream output stream, closed once writer is closed
+     * @param type         xlsx or csv, whose delimiter can be set by {@link Writer#delimiter(char)}
+     * @param clazz        row class, null for rows of map
+     * @return excel writer.
+     */
+    public static <E> Writer<E> writer(OutputStream outputStream, ExcelTypeEnum type, Class<E> clazz) {
+        if (type == ExcelTypeEnum.XLSX) {
+            return new XlsxWriter<>(outputStream, clazz);
+        }
+        if (type == ExcelTypeEnum.CSV) {
+            return new CsvWriter<>(outputStream, clazz);
+        }
+        throw new FileNotSupportedException("Writing " + type + " is not supported.");
+    }
+
+    /**
+     * Open excel writer of map rows, see {@link Excel#writer(Path, Class)}.
+     *
+     * @param path file path
+     * @return excel writer.
+     */
+    public static Writer<Map<String, ?>> writer(Path path) {
+        return writer(path, null);
+    }
+
+    /**
+     * Open excel writer by extension of file, csv for ".csv" and tsv for ".tsv", otherwise xlsx.
+     *
+     * @param path  file path
+     * @param clazz row class, null for rows of map
+     * @return excel writer.
+     */
+    @SneakyThrows
+    public static <E> Writer<E> writer(Path path, Class<E> clazz) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean tsv = name.endsWith(".tsv");
+        if (!tsv && !name.endsWith(".csv")) {
+            return writer(Files.newOutputStream(path), clazz);
+        }
+        Writer<E> writer = writer(Files.newOutputStream(path), ExcelTypeEnum.CSV, clazz);
+        return tsv ? writer.delimiter('\t') : writer;
+    }
 }
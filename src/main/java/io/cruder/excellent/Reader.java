@@ -16,10 +16,17 @@
 package io.cruder.excellent;
 
 import io.cruder.excellent.util.Converter;
+import io.cruder.excellent.util.DuplicateHeaderPolicy;
+import io.cruder.excellent.util.MissingColumnPolicy;
+import io.cruder.excellent.util.RowConsumer;
+import io.cruder.excellent.util.RowView;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -29,7 +36,7 @@ import java.util.stream.StreamSupport;
  * @author cruder
  * @since 2019-03-22
  */
-interface Reader<T> extends Iterable<T> {
+public interface Reader<T> extends Iterable<T>, AutoCloseable {
 
     /**
      * Take first row as head, if this works, headers from {@link Reader#headers(String...)} will be removed.
@@ -55,6 +62,197 @@ interface Reader<T> extends Iterable<T> {
      */
     Reader<T> converter(Converter converter);
 
+    /**
+     * Bind numeric cells to numeric and date fields from their raw value instead of formatted text,
+     * by {@link io.cruder.excellent.util.DefaultConverter#RAW}.
+     *
+     * @return reader
+     */
+    Reader<T> rawValues();
+
+    /**
+     * Set rows of one batch handed over from parse thread to reader, take effect before the first read.
+     * <p>Readers which parse in caller thread ignore it.</p>
+     *
+     * @param rows rows of one batch, default {@link io.cruder.excellent.util.Constant#DEFAULT_BATCH_SIZE}
+     * @return reader
+     */
+    Reader<T> batchSize(int rows);
+
+    /**
+     * Set delimiter of fields in delimited text, take effect before the first read. Readers of workbooks ignore it.
+     *
+     * @param delimiter ascii char other than quote and line break, default comma, or tab for ".tsv" file
+     * @return reader
+     */
+    Reader<T> delimiter(char delimiter);
+
+    /**
+     * Parse sheets in parallel, each sheet on its own worker, take effect before the first read.
+     * <p>Rows merged in sheet order keep the sequential result, but sheets ahead of the reading one are only
+     * parsed until their cached batches are full. Rows not in sheet order come from whichever sheet is ready and
+     * are told apart by {@link io.cruder.excellent.util.RowView#getSheet()}.</p>
+     * <p>Xls reader reads workbook globals once and decodes each sheet from its own offset, except encrypted workbook
+     * which is read sequentially. Csv reader splits a large mapped file into parts at record boundaries and parses
+     * them in parallel instead. Readers which can not parse sheets in parallel ignore it.</p>
+     *
+     * @param inSheetOrder merge rows in sheet order, or hand them over as soon as ready
+     * @return reader
+     */
+    Reader<T> parallelSheets(boolean inSheetOrder);
+
+    /**
+     * Set how header titles which appear more than once are resolved, take effect once headers are known.
+     *
+     * @param policy policy, default {@link DuplicateHeaderPolicy#FAIL}
+     * @return reader
+     */
+    Reader<T> duplicateHeaders(DuplicateHeaderPolicy policy);
+
+    /**
+     * Set how titles of bean fields and of {@link Reader#columns(String...)} which headers do not have are treated,
+     * take effect once headers are known.
+     *
+     * @param policy policy, default {@link MissingColumnPolicy#IGNORE}
+     * @return reader
+     */
+    Reader<T> missingColumns(MissingColumnPolicy policy);
+
+    /**
+     * Read only sheets of given names, other sheets are skipped without being parsed. Take effect before the first
+     * read, and can be combined with {@link Reader#sheetNos(int...)}.
+     * <p>Headers are taken from the first selected sheet.</p>
+     *
+     * @param names sheet names
+     * @return reader
+     */
+    Reader<T> sheetNames(String... names);
+
+    /**
+     * Read only cells of columns with given header titles, cells of other columns are left blank without being
+     * decoded, formatted or looked up in shared strings. Take effect once headers are known, and headers of other
+     * columns are passed to converter as null.
+     * <p>Bean readers of default converter project columns of mapped fields by themselves.</p>
+     *
+     * @param titles header titles
+     * @return reader
+     */
+    Reader<T> columns(String... titles);
+
+    /**
+     * Skip first rows which pass {@link Reader#filter(Predicate)}, header rows are not counted.
+     *
+     * @param rows rows to skip
+     * @return reader
+     */
+    Reader<T> skip(long rows);
+
+    /**
+     * Read at most given rows after skipped ones, parsing stops as soon as the last one is read.
+     *
+     * @param rows maximal rows to read
+     * @return reader
+     */
+    Reader<T> limit(long rows);
+
+    /**
+     * Read only rows whose cells match predicate, which is tested on raw rows before they are converted, and before
+     * rows are counted by {@link Reader#skip(long)} and {@link Reader#limit(long)}. Predicates of several calls
+     * are all matched.
+     *
+     * @param predicate predicate of row, row is valid only during the test
+     * @return reader
+     */
+    Reader<T> filter(Predicate<RowView> predicate);
+
+    /**
+     * Decode records and format cells on a background thread, which fills batches of rows ahead of reads. Take effect
+     * before the first read.
+     * <p>Failure of background thread is raised by read as {@link io.cruder.excellent.exception.ExcelReadException},
+     * after rows read before it. Readers which always parse in background ignore it.</p>
+     *
+     * @return reader
+     */
+    Reader<T> readAhead();
+
+    /**
+     * Share workbook globals with reads of workbooks whose styles have the same content, such as copies of one
+     * template, through {@link io.cruder.excellent.util.GlobalsCache}. Take effect before the first read.
+     * <p>Readers of delimited text ignore it.</p>
+     *
+     * @return reader
+     */
+    Reader<T> cacheGlobals();
+
+    /**
+     * Convert rows to objects on workers of common fork join pool, see {@link Reader#parallelConvert(Executor, int,
+     * boolean)}.
+     *
+     * @param workers    maximal batches in conversion at a time
+     * @param inRowOrder keep objects in row order
+     * @return reader
+     */
+    default Reader<T> parallelConvert(int workers, boolean inRowOrder) {
+        return parallelConvert(ForkJoinPool.commonPool(), workers, inRowOrder);
+    }
+
+    /**
+     * Convert rows to objects on workers, batch by batch of {@link Reader#batchSize(int)} rows, take effect before
+     * the first read. Rows are copied by reading thread and converted by workers, so converter must be thread safe.
+     * <p>Objects in row order are read as sequential, otherwise each batch is read as soon as it is converted.
+     * Failure of conversion is raised by read as {@link io.cruder.excellent.exception.ExcelReadException}.
+     * {@link Reader#forEachRow(RowConsumer)} does not convert, so it ignores it.</p>
+     *
+     * @param executor   executor of workers, which should not be the one parsing sheets if it is bounded
+     * @param workers    maximal batches in conversion at a time
+     * @param inRowOrder keep objects in row order
+     * @return reader
+     */
+    Reader<T> parallelConvert(Executor executor, int workers, boolean inRowOrder);
+
+    /**
+     * Run parse tasks on given executor instead of a shared pool of daemon threads, take effect before the first
+     * read. Each reader runs one task, or one per processor with {@link Reader#parallelSheets(boolean)}, which
+     * blocks until its sheets are parsed, so a bounded executor must have room for them or reads wait for queued
+     * tasks. The shared pool is unbounded for this reason, it starts a thread for each task of open readers which
+     * finds no idle one, see {@link io.cruder.excellent.util.ParseExecutors#DEFAULT}.
+     *
+     * @param executor executor of parse tasks
+     * @return reader
+     */
+    Reader<T> executor(Executor executor);
+
+    /**
+     * Run parse tasks on virtual threads where runtime supports them, otherwise on the shared pool, see
+     * {@link Reader#executor(Executor)}.
+     *
+     * @return reader
+     */
+    Reader<T> virtualThreads();
+
+    /**
+     * Stop reading, can be called by any thread. Background parsing stops soon, as its threads are interrupted,
+     * and reads return no more row.
+     */
+    void cancel();
+
+    /**
+     * Cancel reading, wait for background parsing to stop and release files held by reader, such as the workbook
+     * and temporary files. Called by reading thread or once reads return, use {@link Reader#cancel()} to stop reads
+     * of another thread.
+     */
+    @Override
+    void close();
+
+    /**
+     * Read only sheets of given numbers, other sheets are skipped without being parsed. Take effect before the
+     * first read, and can be combined with {@link Reader#sheetNames(String...)}.
+     *
+     * @param sheetNos sheet numbers, starting from 1 as {@link io.cruder.excellent.pojo.Sheet#getSheetNo()}
+     * @return reader
+     */
+    Reader<T> sheetNos(int... sheetNos);
+
     /**
      * Read one row.
      *
@@ -62,6 +260,15 @@ interface Reader<T> extends Iterable<T> {
      */
     Optional<T> readRow();
 
+    /**
+     * Visit remaining rows without converting them.
+     * <p>Row passed to consumer is a recycled buffer which is valid only during the callback,
+     * copy what should be kept.</p>
+     *
+     * @param consumer row consumer
+     */
+    void forEachRow(RowConsumer consumer);
+
     /**
      * Read all rows. If excel contains large data, may cause OOM.
      *
@@ -77,11 +284,12 @@ interface Reader<T> extends Iterable<T> {
     }
 
     /**
-     * Construct stream.
+     * Construct stream, which splits off batches of rows when it is made parallel, and closes reader when it is
+     * closed.
      *
      * @return stream.
      */
     default Stream<T> stream() {
-        return StreamSupport.stream(spliterator(), false);
+        return StreamSupport.stream(spliterator(), false).onClose(this::close);
     }
 }
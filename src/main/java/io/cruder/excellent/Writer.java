@@ -0,0 +1,107 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import java.util.stream.Stream;
+
+/**
+ * Writer: Uniform excel writer interface, the counterpart of {@link Reader}.
+ * <p>Rows are written as they come and memory does not grow with count of rows. Settings take effect before the
+ * first write, and the workbook is complete only once writer is closed.</p>
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public interface Writer<T> extends AutoCloseable {
+
+    /**
+     * Write values of map rows under given headers in this order, otherwise under keys of the first map. Columns of
+     * beans come from their fields, see {@link ExcelColumn}.
+     *
+     * @param headers header names
+     * @return writer
+     */
+    Writer<T> headers(String... headers);
+
+    /**
+     * Do not write titles of columns as the first row.
+     *
+     * @return writer
+     */
+    Writer<T> withoutHeader();
+
+    /**
+     * Name of the sheet written, "Sheet1" by default. Writers of delimited text ignore it.
+     *
+     * @param sheetName sheet name
+     * @return writer
+     */
+    Writer<T> sheetName(String sheetName);
+
+    /**
+     * Write strings into shared strings table, each distinct string once, up to capacity of distinct strings kept
+     * in memory. Strings beyond capacity are written inline, as all strings are by default. Writers of delimited
+     * text ignore it.
+     *
+     * @param capacity maximal distinct strings shared
+     * @return writer
+     */
+    Writer<T> sharedStrings(int capacity);
+
+    /**
+     * Delimiter of fields in delimited text, comma by default. Writers of workbooks ignore it.
+     *
+     * @param delimiter ascii char other than quote and line break
+     * @return writer
+     */
+    Writer<T> delimiter(char delimiter);
+
+    /**
+     * Write one row.
+     *
+     * @param row row object
+     * @throws io.cruder.excellent.exception.ExcelWriteException if row can not be written
+     */
+    void write(T row);
+
+    /**
+     * Write all rows in order.
+     *
+     * @param rows row objects
+     */
+    default void writeAll(Iterable<? extends T> rows) {
+        for (T row : rows) {
+            write(row);
+        }
+    }
+
+    /**
+     * Write all rows of stream in order.
+     *
+     * @param rows row objects
+     */
+    default void writeAll(Stream<? extends T> rows) {
+        rows.forEachOrdered(this::write);
+    }
+
+    /**
+     * Complete the workbook and close output, no row can be written after.
+     *
+     * @throws io.cruder.excellent.exception.ExcelWriteException if workbook can not be completed
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,273 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.csv;
+
+import io.cruder.excellent.util.RowBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * io.cruder.excellent.csv.CsvParser: Parser of delimited records, which decodes UTF-8 bytes straight into cells of
+ * row buffer without going through {@link java.io.Reader} or intermediate strings.
+ * <p>Fields follow RFC 4180: quoted fields hold delimiters, line breaks and quotes doubled, and records end with
+ * LF, CRLF or CR. Empty lines are skipped, and a quote in the middle of an unquoted field is taken as it is.</p>
+ *
+ * @author cruder.io
+ * @since 2020-03-26
+ */
+final class CsvParser {
+
+    static final int QUOTE = '"';
+    static final int CR = '\r';
+    static final int LF = '\n';
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_CHARS = 256;
+    private static final char REPLACEMENT = '\uFFFD';
+
+    /**
+     * Source of bytes, either a buffer such as a mapped range of file, or a channel read as stream.
+     */
+    private final ByteBuffer source;
+    private final ReadableByteChannel channel;
+
+    /**
+     * Window of bytes copied from source, parsed by index rather than through buffer, and position of next byte.
+     */
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private final int delimiter;
+
+    /**
+     * Columns whose fields are decoded, others are added blank.
+     */
+    private final IntPredicate projected;
+
+    /**
+     * Chars of field being decoded.
+     */
+    private char[] chars = new char[INITIAL_CHARS];
+    private int length;
+
+    /**
+     * Records parsed, empty lines included.
+     */
+    private int records;
+
+    /**
+     * Parser of bytes in buffer, such as a mapped range of file.
+     *
+     * @param buffer    bytes between position and limit
+     * @param delimiter delimiter of fields
+     * @param projected columns whose fields are decoded
+     */
+    CsvParser(ByteBuffer buffer, char delimiter, IntPredicate projected) {
+        this(buffer, null, delimiter, projected);
+    }
+
+    /**
+     * Parser of bytes read from channel.
+     *
+     * @param channel   channel read in order
+     * @param delimiter delimiter of fields
+     * @param projected columns whose fields are decoded
+     */
+    CsvParser(ReadableByteChannel channel, char delimiter, IntPredicate projected) {
+        this(null, channel, delimiter, projected);
+    }
+
+    private CsvParser(ByteBuffer source, ReadableByteChannel channel, char delimiter, IntPredicate projected) {
+        this.source = source;
+        this.channel = channel;
+        this.delimiter = delimiter;
+        this.projected = projected;
+    }
+
+    /**
+     * Skip byte order mark of UTF-8 at the beginning.
+     *
+     * @return this
+     * @throws IOException if channel fails
+     */
+    CsvParser skipByteOrderMark() throws IOException {
+        while (limit - position < 3 && fill()) {
+            // Read until the mark can be told.
+        }
+        if (limit - position >= 3 && (bytes[position] & 0xFF) == 0xEF && (bytes[position + 1] & 0xFF) == 0xBB
+                && (bytes[position + 2] & 0xFF) == 0xBF) {
+            position += 3;
+        }
+        return this;
+    }
+
+    /**
+     * @return records parsed, empty lines included
+     */
+    int records() {
+        return records;
+    }
+
+    /**
+     * Parse next record into row, whose number is the index of record from the beginning of parser.
+     *
+     * @param row cleared row buffer
+     * @return false if there is no more record
+     * @throws IOException if channel fails
+     */
+    boolean next(RowBuffer row) throws IOException {
+        int c = read();
+        while (c == LF || c == CR) {
+            int next = read();
+            if (c == CR && next == LF) {
+                next = read();
+            }
+            c = next;
+            records++;
+        }
+        if (c < 0) {
+            return false;
+        }
+        row.setRowNum(records++);
+        int column = 0;
+        while (true) {
+            boolean decoded = projected.test(column++);
+            boolean quoted = c == QUOTE;
+            length = 0;
+            if (quoted) {
+                while ((c = read()) >= 0) {
+                    // Quote ends field unless it is doubled.
+                    if (c == QUOTE && (c = read()) != QUOTE) {
+                        break;
+                    }
+                    if (decoded) {
+                        append(c);
+                    }
+                }
+            }
+            while (c >= 0 && c != delimiter && c != LF && c != CR) {
+                if (decoded) {
+                    append(c);
+                }
+                c = read();
+            }
+            if (!decoded || (length == 0 && !quoted)) {
+                row.addBlank();
+            } else {
+                row.addText(new String(chars, 0, length));
+            }
+            if (c == delimiter) {
+                c = read();
+                continue;
+            }
+            if (c == CR && (c = read()) != LF && c >= 0) {
+                position--;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Append char of byte, decoding following bytes of multi-byte sequence. Malformed sequence is replaced.
+     *
+     * @param b byte read
+     */
+    private void append(int b) throws IOException {
+        if (length + 2 > chars.length) {
+            chars = Arrays.copyOf(chars, chars.length << 1);
+        }
+        if (b < 0x80) {
+            chars[length++] = (char) b;
+            return;
+        }
+        int more;
+        int codePoint;
+        if ((b & 0xE0) == 0xC0) {
+            more = 1;
+            codePoint = b & 0x1F;
+        } else if ((b & 0xF0) == 0xE0) {
+            more = 2;
+            codePoint = b & 0x0F;
+        } else if ((b & 0xF8) == 0xF0) {
+            more = 3;
+            codePoint = b & 0x07;
+        } else {
+            chars[length++] = REPLACEMENT;
+            return;
+        }
+        while (more-- > 0) {
+            int c = read();
+            if ((c & 0xC0) != 0x80) {
+                // Byte out of sequence, including end of input, is parsed on its own.
+                if (c >= 0) {
+                    position--;
+                }
+                chars[length++] = REPLACEMENT;
+                return;
+            }
+            codePoint = codePoint << 6 | c & 0x3F;
+        }
+        if (Character.isBmpCodePoint(codePoint)) {
+            chars[length++] = Character.isSurrogate((char) codePoint) ? REPLACEMENT : (char) codePoint;
+        } else if (Character.isValidCodePoint(codePoint)) {
+            chars[length++] = Character.highSurrogate(codePoint);
+            chars[length++] = Character.lowSurrogate(codePoint);
+        } else {
+            chars[length++] = REPLACEMENT;
+        }
+    }
+
+    /**
+     * Next byte, which can be pushed back by decreasing position, as it is always in window.
+     *
+     * @return next byte, -1 at the end of input
+     */
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return bytes[position++] & 0xFF;
+    }
+
+    /**
+     * Copy more bytes from source after remaining ones.
+     *
+     * @return false at the end of source
+     */
+    private boolean fill() throws IOException {
+        int kept = limit - position;
+        System.arraycopy(bytes, position, bytes, 0, kept);
+        position = 0;
+        limit = kept;
+        if (source != null) {
+            int count = Math.min(source.remaining(), bytes.length - kept);
+            source.get(bytes, kept, count);
+            limit += count;
+            return count > 0;
+        }
+        ByteBuffer window = ByteBuffer.wrap(bytes, kept, bytes.length - kept);
+        int read;
+        while ((read = channel.read(window)) == 0) {
+            // Blocking channel reads at least one byte into free window.
+        }
+        limit = window.position();
+        return read > 0;
+    }
+}
@@ -0,0 +1,525 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.csv;
+
+import io.cruder.excellent.AbstractExcelReader;
+import io.cruder.excellent.exception.ExcelReadException;
+import io.cruder.excellent.pojo.Sheet;
+import io.cruder.excellent.util.RowBatch;
+import io.cruder.excellent.util.RowBuffer;
+import io.cruder.excellent.util.RowView;
+import io.cruder.excellent.util.SpscRing;
+import lombok.SneakyThrows;
+import org.apache.poi.util.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * io.cruder.excellent.csv.CsvReader: Csv and tsv reader implement, whose records are rows of one sheet named after
+ * the file. Cells are text, empty fields are blank.
+ * <p>File is memory mapped and parsed in place, otherwise stream is parsed as it is read. With
+ * {@link #parallelSheets(boolean)} a mapped file is split into parts at record boundaries, each parsed by its own
+ * worker. Row numbers count records from the beginning of file, and are unknown if rows are not in order.</p>
+ *
+ * @author cruder.io
+ * @since 2020-03-26
+ */
+public class CsvReader<T> extends AbstractExcelReader<T> {
+
+    /**
+     * Batches filled by each worker not taken yet.
+     */
+    private static final int CACHED_BATCHES = 4;
+
+    /**
+     * Smallest part of file parsed by a worker of its own.
+     */
+    private static final long MIN_PART_BYTES = 1L << 20;
+
+    /**
+     * Head of file whose records are counted to estimate rows.
+     */
+    private static final int SAMPLE_BYTES = 64 * 1024;
+
+    private static final String DEFAULT_SHEET_NAME = "Sheet1";
+
+    /**
+     * Mapped file, or channel of stream if file is not mapped, and whether channel is closed with reader.
+     */
+    private final ByteBuffer mapped;
+    private final ReadableByteChannel channel;
+    private final boolean ownChannel;
+    private final Sheet sheet;
+
+    /**
+     * Parse in caller thread.
+     */
+    private CsvParser parser;
+    private final RowBuffer row = new RowBuffer(null, null);
+    private boolean anyRecord;
+
+    /**
+     * Parse on workers: parts of file in record order, remaining ones, and records of parts read before the
+     * reading one.
+     */
+    private List<Part> parts;
+    private final List<Part> remaining = new ArrayList<>();
+    private int cursor;
+    private long recordBase;
+
+    private boolean started;
+    private boolean finished;
+
+    /**
+     * Creates a new CSV reader, file is memory mapped, otherwise stream is parsed as it is read. Fields of file
+     * ending with ".tsv" are delimited by tab.
+     *
+     * @param filePath    file path, nullable
+     * @param inputStream input stream of file, closed once file is mapped or reader is closed
+     * @param clazz       generic class
+     * @throws IOException IO exception
+     */
+    public CsvReader(String filePath, InputStream inputStream, Class<T> clazz) throws IOException {
+        super(clazz);
+        if (filePath == null || filePath.isEmpty()) {
+            this.mapped = null;
+            this.channel = Channels.newChannel(inputStream);
+            this.ownChannel = true;
+            this.sheet = sheet(null);
+            return;
+        }
+        Path path = Paths.get(filePath);
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.mapped = map(file);
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+        this.channel = mapped == null ? Files.newByteChannel(path) : null;
+        this.ownChannel = true;
+        this.sheet = sheet(path.getFileName().toString());
+        if (filePath.toLowerCase(Locale.ROOT).endsWith(".tsv")) {
+            this.delimiter = '\t';
+        }
+    }
+
+    /**
+     * Creates a new CSV reader over memory mapped channel.
+     *
+     * @param channel file channel, which can be closed once constructed unless file is larger than 2GB, whose
+     *                records are read from channel
+     * @param clazz   generic class
+     * @throws IOException IO exception
+     */
+    public CsvReader(FileChannel channel, Class<T> clazz) throws IOException {
+        super(clazz);
+        this.mapped = map(channel);
+        this.channel = mapped == null ? channel : null;
+        this.ownChannel = false;
+        this.sheet = sheet(null);
+    }
+
+    /**
+     * @param channel file channel
+     * @return mapped file, null if file is too large for a buffer
+     */
+    private static ByteBuffer map(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            return null;
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    /**
+     * @param fileName file name, nullable
+     * @return the only sheet, named after file without extension
+     */
+    private static Sheet sheet(String fileName) {
+        String name = DEFAULT_SHEET_NAME;
+        if (fileName != null) {
+            int dot = fileName.lastIndexOf('.');
+            name = dot > 0 ? fileName.substring(0, dot) : fileName;
+        }
+        return new Sheet().setSheetNo(1).setSheetName(name);
+    }
+
+    /**
+     * Start read at the first read, so that delimiter, batch size and parallelism are settled.
+     */
+    private void startRead() throws IOException {
+        started = true;
+        if (!isSelected(sheet)) {
+            finished = true;
+            return;
+        }
+        int workers = 1;
+        if (parallelSheets && mapped != null) {
+            workers = (int) Math.min(Runtime.getRuntime().availableProcessors(),
+                    Math.max(1, mapped.limit() / MIN_PART_BYTES));
+        }
+        if (!readAhead && workers == 1) {
+            parser = parser(mapped == null ? null : mapped.duplicate()).skipByteOrderMark();
+            return;
+        }
+        parts = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            parts.add(new Part());
+        }
+        remaining.addAll(parts);
+        execute(this::split);
+    }
+
+    /**
+     * @param range bytes to parse, null to parse channel
+     * @return parser of range or channel
+     */
+    private CsvParser parser(ByteBuffer range) {
+        // Not a method reference, which can not access protected method of outer super class from part.
+        if (range == null) {
+            return new CsvParser(channel, delimiter, column -> isProjected(column));
+        }
+        return new CsvParser(range, delimiter, column -> isProjected(column));
+    }
+
+    /**
+     * Split file at record boundaries and parse each part on a worker, the last part on this thread. Parts are
+     * handed over as soon as their end is found, so workers start while the rest is scanned.
+     */
+    private void split() {
+        int launched = 0;
+        try {
+            int start = 0;
+            for (int i = 0; i < parts.size() - 1 && !isStopped(); i++) {
+                long target = (long) mapped.limit() * (i + 1) / parts.size();
+                int end = boundary(start, (int) target);
+                Part part = parts.get(i);
+                ByteBuffer range = range(start, end);
+                boolean first = i == 0;
+                execute(() -> part.parse(range, first));
+                launched++;
+                start = end;
+            }
+            Part last = parts.get(parts.size() - 1);
+            launched++;
+            last.parse(mapped == null ? null : range(start, mapped.limit()), parts.size() == 1);
+        } catch (RuntimeException | Error e) {
+            // Consumer would wait for parts never parsed, so they fail alike.
+            for (Part part : parts.subList(launched, parts.size())) {
+                part.failure = e;
+                part.filled.close();
+            }
+        }
+    }
+
+    private ByteBuffer range(int start, int end) {
+        ByteBuffer range = mapped.duplicate();
+        range.limit(end).position(start);
+        return range;
+    }
+
+    /**
+     * Find end of the first record ending with LF at or after target, by following quotes as parser does.
+     *
+     * @param start  start of record, from which fields are followed
+     * @param target position which record should end after
+     * @return position after LF, start if it is already past target, or limit if no record ends after target
+     */
+    private int boundary(int start, int target) {
+        if (start >= target) {
+            return start;
+        }
+        int limit = mapped.limit();
+        boolean quoted = false;
+        boolean fieldStart = true;
+        for (int at = start; at < limit; at++) {
+            int c = mapped.get(at);
+            if (quoted) {
+                if (c == CsvParser.QUOTE) {
+                    // Doubled quote stays in field.
+                    if (at + 1 < limit && mapped.get(at + 1) == CsvParser.QUOTE) {
+                        at++;
+                    } else {
+                        quoted = false;
+                    }
+                }
+            } else if (c == CsvParser.LF) {
+                if (at >= target) {
+                    return at + 1;
+                }
+                fieldStart = true;
+            } else if (c == delimiter || c == CsvParser.CR) {
+                fieldStart = true;
+            } else {
+                quoted = fieldStart && c == CsvParser.QUOTE;
+                fieldStart = false;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * Estimate rows by records in head of mapped file.
+     *
+     * @return rows estimated
+     */
+    @Override
+    protected long estimateRows() {
+        if (!isSelected(sheet)) {
+            return 0;
+        }
+        if (mapped == null) {
+            return Long.MAX_VALUE;
+        }
+        int size = mapped.limit();
+        int sample = Math.min(size, SAMPLE_BYTES);
+        long records = 0;
+        for (int i = 0; i < sample; i++) {
+            if (mapped.get(i) == CsvParser.LF) {
+                records++;
+            }
+        }
+        if (sample == size) {
+            if (size > 0 && mapped.get(size - 1) != CsvParser.LF) {
+                records++;
+            }
+        } else if (records == 0) {
+            return Long.MAX_VALUE;
+        } else {
+            records = records * size / sample;
+        }
+        return firstRowAsHeader ? Math.max(records - 1, 0) : records;
+    }
+
+    @Override
+    protected void release() {
+        if (ownChannel) {
+            IOUtils.closeQuietly(channel);
+        }
+    }
+
+    @Override
+    @SneakyThrows
+    protected RowView nextRow() {
+        if (finished || isStopped()) {
+            return null;
+        }
+        if (!started) {
+            try {
+                startRead();
+            } catch (IOException e) {
+                finished = true;
+                throw new ExcelReadException("Read csv file failure.", e);
+            }
+            if (finished) {
+                return null;
+            }
+        }
+        if (parts != null) {
+            return nextPartRow();
+        }
+        while (true) {
+            row.clear();
+            try {
+                if (!parser.next(row)) {
+                    finished = true;
+                    return null;
+                }
+            } catch (IOException e) {
+                finished = true;
+                throw new ExcelReadException("Read csv file failure.", e);
+            }
+            row.setSheet(sheet);
+            boolean first = !anyRecord;
+            anyRecord = true;
+            if (takeHeader(row, first)) {
+                continue;
+            }
+            return row;
+        }
+    }
+
+    /**
+     * Take the first record as headers.
+     *
+     * @param record record read
+     * @param first  whether record is the first one of file
+     * @return true if record is taken
+     */
+    private boolean takeHeader(RowBuffer record, boolean first) {
+        if (!first || !firstRowAsHeader || headerConfirmed) {
+            return false;
+        }
+        confirmHeaders(record.toList());
+        return true;
+    }
+
+    /**
+     * Next row parsed by workers, parts are merged in order, or read as soon as ready.
+     *
+     * @return row, null if there is no more row
+     */
+    @SneakyThrows
+    private RowView nextPartRow() {
+        int idle = 0;
+        next:
+        while (!isStopped()) {
+            if (remaining.isEmpty()) {
+                finished = true;
+                return null;
+            }
+            // Headers come from the first part, so it is read alone until they are taken.
+            boolean ordered = inSheetOrder || (firstRowAsHeader && !headerConfirmed);
+            int count = ordered ? 1 : remaining.size();
+            for (int i = 0; i < count; i++) {
+                int at = ordered ? 0 : (cursor + i) % remaining.size();
+                Part part = remaining.get(at);
+                boolean first = part == parts.get(0) && !part.started;
+                RowBuffer polled = part.poll();
+                if (polled == null) {
+                    if (part.drained) {
+                        if (part.failure != null && !isStopped()) {
+                            finished = true;
+                            throw new ExcelReadException("Read csv file failure.", part.failure);
+                        }
+                        recordBase += part.records;
+                        remaining.remove(at);
+                        idle = 0;
+                        continue next;
+                    }
+                    continue;
+                }
+                cursor = at;
+                idle = 0;
+                if (takeHeader(polled, first)) {
+                    continue next;
+                }
+                polled.setRowNum(inSheetOrder ? (int) (recordBase + polled.getRowNum()) : -1);
+                return polled;
+            }
+            idle = SpscRing.idle(idle);
+        }
+        return null;
+    }
+
+    /**
+     * Part: Rows of one part of file from its worker to consumer, filled and recycled batches travel through a pair
+     * of single producer single consumer rings.
+     */
+    private final class Part {
+
+        private final SpscRing<RowBatch> filled = new SpscRing<>(CACHED_BATCHES + 2);
+        private final SpscRing<RowBatch> free = new SpscRing<>(CACHED_BATCHES + 2);
+
+        /**
+         * Records of part and failure of its worker, visible to consumer once filled ring is closed.
+         */
+        private int records;
+        private Throwable failure;
+
+        /**
+         * Batch held by consumer, index of its next row, and whether consumer has taken any row or all rows.
+         */
+        private RowBatch consuming;
+        private int index;
+        private boolean started;
+        private boolean drained;
+
+        Part() {
+            // One batch more than cached for worker and one for consumer.
+            for (int i = 0; i < CACHED_BATCHES + 2; i++) {
+                free.offer(new RowBatch(batchSize));
+            }
+        }
+
+        /**
+         * Parse records into batches, called by worker.
+         *
+         * @param range bytes of part, null to parse channel
+         * @param first whether part is at the beginning of file
+         */
+        void parse(ByteBuffer range, boolean first) {
+            try {
+                CsvParser parser = parser(range);
+                if (first) {
+                    parser.skipByteOrderMark();
+                }
+                RowBatch producing = free.take(() -> isStopped());
+                while (producing != null) {
+                    RowBuffer next = producing.next();
+                    if (!parser.next(next)) {
+                        records = parser.records();
+                        if (!producing.isEmpty()) {
+                            filled.put(producing);
+                        }
+                        return;
+                    }
+                    next.setSheet(sheet);
+                    if (isStopped()) {
+                        return;
+                    }
+                    if (producing.commit()) {
+                        filled.put(producing);
+                        producing = free.take(() -> isStopped());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | RuntimeException | Error e) {
+                failure = e;
+            } finally {
+                filled.close();
+            }
+        }
+
+        /**
+         * Next row without waiting, called by consumer.
+         *
+         * @return row, null if no row is ready or part is drained
+         */
+        RowBuffer poll() {
+            if (consuming != null) {
+                if (index < consuming.size()) {
+                    return consuming.get(index++);
+                }
+                consuming.clear();
+                free.offer(consuming);
+                consuming = null;
+            }
+            // Closed is read before polling, so rows put before closing are not missed.
+            boolean closed = filled.isClosed();
+            consuming = filled.poll();
+            if (consuming == null) {
+                drained = closed;
+                return null;
+            }
+            started = true;
+            index = 1;
+            return consuming.get(0);
+        }
+    }
+}
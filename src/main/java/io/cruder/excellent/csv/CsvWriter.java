@@ -0,0 +1,235 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.csv;
+
+import io.cruder.excellent.AbstractExcelWriter;
+import io.cruder.excellent.util.CellSink;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * io.cruder.excellent.csv.CsvWriter: Csv and tsv writer, which encodes rows straight into UTF-8 bytes of a reusable
+ * buffer written once it is full.
+ * <p>Fields holding delimiter, quote or line break are quoted with quotes doubled, records end with CRLF as
+ * RFC 4180. Numbers are written as their exact plain digits, never rounded through double nor in exponent form,
+ * booleans as TRUE or FALSE, and dates as text of their pattern.</p>
+ *
+ * @author cruder.io
+ * @since 2020-03-26
+ */
+public class CsvWriter<T> extends AbstractExcelWriter<T> {
+
+    /**
+     * Size of encoded rows written at a time.
+     */
+    private static final int FLUSH_SIZE = 64 * 1024;
+
+    private static final byte[] TRUE = {'T', 'R', 'U', 'E'};
+    private static final byte[] FALSE = {'F', 'A', 'L', 'S', 'E'};
+    private static final byte[] NOT_NUMBER = {'#', 'N', 'U', 'M', '!'};
+
+    private final OutputStream output;
+    private final RecordCells cells = new RecordCells();
+
+    private byte[] bytes = new byte[FLUSH_SIZE << 1];
+    private int length;
+
+    /**
+     * Buffered length where current record starts, records are flushed only once ended.
+     */
+    private int rowStart;
+
+    /**
+     * Creates a new CSV writer.
+     *
+     * @param outputStream output of file, closed once writer is closed
+     * @param clazz        generic class, null for rows of map
+     */
+    public CsvWriter(OutputStream outputStream, Class<T> clazz) {
+        super(clazz);
+        this.output = outputStream;
+    }
+
+    @Override
+    protected void startSheet() {
+        // Delimited text has no sheet.
+    }
+
+    @Override
+    protected CellSink startRow() {
+        cells.first = true;
+        rowStart = length;
+        return cells;
+    }
+
+    @Override
+    protected void endRow() throws IOException {
+        ensure(2);
+        bytes[length++] = CsvParser.CR;
+        bytes[length++] = CsvParser.LF;
+        if (length >= FLUSH_SIZE) {
+            flush();
+        }
+    }
+
+    @Override
+    protected void abortRow() {
+        length = rowStart;
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        try {
+            flush();
+        } finally {
+            output.close();
+        }
+    }
+
+    private void flush() throws IOException {
+        output.write(bytes, 0, length);
+        length = 0;
+    }
+
+    private void ensure(int more) {
+        if (length + more > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, length + more));
+        }
+    }
+
+    private void put(byte[] raw) {
+        ensure(raw.length);
+        System.arraycopy(raw, 0, bytes, length, raw.length);
+        length += raw.length;
+    }
+
+    /**
+     * RecordCells: Cells of current record, each after a delimiter but the first.
+     */
+    private final class RecordCells implements CellSink {
+
+        private boolean first;
+
+        private void startCell() {
+            if (first) {
+                first = false;
+            } else {
+                ensure(1);
+                bytes[length++] = (byte) delimiter;
+            }
+        }
+
+        @Override
+        public void blank() {
+            startCell();
+        }
+
+        @Override
+        public void text(String text) {
+            startCell();
+            int size = text.length();
+            boolean quoted = needsQuote(text);
+            // Char takes 3 bytes at most, or 2 quotes, and the quoted field 2 more.
+            ensure(size * 3 + 2);
+            if (quoted) {
+                bytes[length++] = CsvParser.QUOTE;
+            }
+            for (int i = 0; i < size; i++) {
+                char c = text.charAt(i);
+                if (c < 0x80) {
+                    if (c == CsvParser.QUOTE) {
+                        bytes[length++] = CsvParser.QUOTE;
+                    }
+                    bytes[length++] = (byte) c;
+                } else if (c < 0x800) {
+                    bytes[length++] = (byte) (0xC0 | c >> 6);
+                    bytes[length++] = (byte) (0x80 | c & 0x3F);
+                } else if (Character.isHighSurrogate(c) && i + 1 < size
+                        && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    bytes[length++] = (byte) (0xF0 | codePoint >> 18);
+                    bytes[length++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                    bytes[length++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                    bytes[length++] = (byte) (0x80 | codePoint & 0x3F);
+                } else if (Character.isSurrogate(c)) {
+                    // Unpaired surrogate can not be encoded.
+                    bytes[length++] = '?';
+                } else {
+                    bytes[length++] = (byte) (0xE0 | c >> 12);
+                    bytes[length++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    bytes[length++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+            if (quoted) {
+                bytes[length++] = CsvParser.QUOTE;
+            }
+        }
+
+        private boolean needsQuote(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == delimiter || c == CsvParser.QUOTE || c == CsvParser.CR || c == CsvParser.LF) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void number(double number) {
+            startCell();
+            if (Double.isNaN(number) || Double.isInfinite(number)) {
+                put(NOT_NUMBER);
+                return;
+            }
+            long whole = (long) number;
+            if (whole == number && Math.abs(whole) < 1_000_000_000_000_000L) {
+                digits(Long.toString(whole));
+            } else {
+                // Shortest digits reading back as the same double, in plain form.
+                digits(BigDecimal.valueOf(number).stripTrailingZeros().toPlainString());
+            }
+        }
+
+        @Override
+        public void number(long number) {
+            startCell();
+            digits(Long.toString(number));
+        }
+
+        @Override
+        public void number(BigDecimal number) {
+            startCell();
+            digits(number.toPlainString());
+        }
+
+        private void digits(String text) {
+            ensure(text.length());
+            for (int i = 0; i < text.length(); i++) {
+                bytes[length++] = (byte) text.charAt(i);
+            }
+        }
+
+        @Override
+        public void bool(boolean value) {
+            startCell();
+            put(value ? TRUE : FALSE);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.exception;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * ExcelReadException: Exception of reading excel, raised to reader from parse thread.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class ExcelReadException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ExcelReadException() {
+    }
+
+    public ExcelReadException(String message) {
+        super(message);
+    }
+
+    public ExcelReadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public ExcelReadException(Throwable cause) {
+        super(cause);
+    }
+
+    public ExcelReadException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
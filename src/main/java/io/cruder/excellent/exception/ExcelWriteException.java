@@ -0,0 +1,51 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.exception;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * ExcelWriteException: Exception of writing excel, raised to writer with the cause of failure.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class ExcelWriteException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ExcelWriteException() {
+    }
+
+    public ExcelWriteException(String message) {
+        super(message);
+    }
+
+    public ExcelWriteException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public ExcelWriteException(Throwable cause) {
+        super(cause);
+    }
+
+    public ExcelWriteException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
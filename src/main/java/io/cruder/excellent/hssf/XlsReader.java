@@ -16,9 +16,18 @@
 package io.cruder.excellent.hssf;
 
 import io.cruder.excellent.AbstractExcelReader;
+import io.cruder.excellent.exception.ExcelReadException;
 import io.cruder.excellent.hssf.eventusermodel.HssfEventFactory;
 import io.cruder.excellent.hssf.eventusermodel.HssfRequest;
+import io.cruder.excellent.pojo.Sheet;
 import io.cruder.excellent.util.Constant;
+import io.cruder.excellent.util.GlobalsCache;
+import io.cruder.excellent.util.RowBatch;
+import io.cruder.excellent.util.RowBuffer;
+import io.cruder.excellent.util.RowView;
+import io.cruder.excellent.util.SpscRing;
+import io.cruder.excellent.util.StyleFormats;
+import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.hssf.eventusermodel.EventWorkbookBuilder.SheetRecordCollectingListener;
 import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
@@ -30,12 +39,17 @@ import org.apache.poi.hssf.model.HSSFFormulaParser;
 import org.apache.poi.hssf.record.*;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
-import org.apache.poi.ss.usermodel.DateUtil;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
+import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * io.cruder.excellent.hssf.XlsReader: Xls reader implement.
@@ -47,8 +61,52 @@ import java.util.List;
 public class XlsReader<T> extends AbstractExcelReader<T> implements HSSFListener, Cloneable {
 
     private final HssfEventFactory HSSF;
-    private T currRow;
-    private List<String> rowCells = new ArrayList<>();
+    /**
+     * Row being filled, and completed row handed to consumer, swapped at the end of each row because
+     * the first cell of next row may follow the end of row in one record.
+     */
+    private RowBuffer rowBuffer = new RowBuffer(this::formatNumber, this::sharedString);
+    private RowBuffer readyRow = new RowBuffer(this::formatNumber, this::sharedString);
+    private boolean rowReady;
+
+    /**
+     * Read ahead: batches filled by producer thread not taken yet.
+     */
+    private static final int CACHED_BATCHES = 4;
+
+    /**
+     * Read ahead: filled batches to consumer and recycled batches back to producer, closed by producer at the end.
+     */
+    private SpscRing<RowBatch> filledBatches;
+    private SpscRing<RowBatch> freeBatches;
+    private volatile Throwable failure;
+
+    /**
+     * Read ahead: batch filled by producer, batch held by consumer with index of its next row, and sheet of last row
+     * read which tells first row of each sheet.
+     */
+    private RowBatch producingBatch;
+    private RowBatch consumingBatch;
+    private int consumingIndex;
+    private Sheet lastSheet;
+
+    /**
+     * Parallel sheets: sheets in BOF order are claimed one by one by workers, each decoding its sheet from a stream of
+     * its own once workbook globals are read.
+     */
+    private boolean parallelStarted;
+    private boolean parallelFinished;
+    private int claimedSheets;
+    private final Object claimLock = new Object();
+    private volatile boolean allClaimed;
+
+    /**
+     * Parallel sheets: channels of claimed sheets in sheet order handed from workers to consumer, channels held by
+     * consumer until drained, and the one read last.
+     */
+    private final BlockingQueue<SheetChannel> claimedChannels = new LinkedBlockingQueue<>();
+    private final List<SheetChannel> channels = new ArrayList<>();
+    private int cursor;
 
     /**
      * Should we output the formula, or the value it has?
@@ -64,11 +122,34 @@ public class XlsReader<T> extends AbstractExcelReader<T> implements HSSFListener
      */
     private SSTRecord sstRecord;
     private FormatTrackingHSSFListener formatListener;
+    private List<ExtendedFormatRecord> xfRecords = new ArrayList<>();
+    private List<FormatRecord> formatRecords = new ArrayList<>();
+    /**
+     * Format of each XF record, built once workbook globals are read.
+     */
+    private StyleFormats styleFormats;
+    /**
+     * Formatters are not thread safe, and rows may be formatted by workers of conversion.
+     */
+    private final ThreadLocal<NumberFormat> defaultFormat = ThreadLocal.withInitial(NumberFormat::getInstance);
+    /**
+     * Sheet type of bound sheet record, the high byte of its option flags following record header and BOF position.
+     * Worksheets and dialog sheets are of type 0, while chart, macro and module sheets are not.
+     */
+    private static final int SHEET_TYPE_OFFSET = 9;
+    private static final int WORKSHEET_TYPE = 0;
     /**
      * So we known which sheet we're on
      */
     private int sheetIndex = -1;
+    private Sheet sheet;
     private BoundSheetRecord[] orderedBsrArray;
+    /**
+     * Unselected sheets are skipped by seeking to next selected one, or by dropping their rows if workbook is
+     * encrypted, whose stream can not be read from the middle.
+     */
+    private boolean encrypted;
+    private boolean skippingSheet;
     private List<BoundSheetRecord> boundSheetRecords = new ArrayList<>();
     /**
      * For handling formulas with string results
@@ -108,8 +189,6 @@ public class XlsReader<T> extends AbstractExcelReader<T> implements HSSFListener
 
     @Override
     public void processRecord(org.apache.poi.hssf.record.Record record) {
-        String cellValue = null;
-
         switch (record.getSid()) {
             case BoundSheetRecord.sid:
                 boundSheetRecords.add((BoundSheetRecord) record);
@@ -128,19 +207,76 @@ public class XlsReader<T> extends AbstractExcelReader<T> implements HSSFListener
                     //  process BOFRecords in byte offset order
                     sheetIndex++;
                     if (orderedBsrArray == null) {
-                        orderedBsrArray = BoundSheetRecord.orderByBofPosition(boundSheetRecords);
+                        orderedBsrArray = orderWorksheets(boundSheetRecords);
+                        styleFormats = readStyleFormats();
+                    }
+                    sheet = sheetAt(sheetIndex);
+                    skippingSheet = false;
+                    if (!isSelected(sheet)) {
+                        skipSheet();
                     }
                     HSSF.entryFirstRow();
                 }
                 break;
+            case FilePassRecord.sid:
+                encrypted = true;
+                break;
 
             case SSTRecord.sid:
                 sstRecord = (SSTRecord) record;
                 break;
+            case ExtendedFormatRecord.sid:
+                xfRecords.add((ExtendedFormatRecord) record);
+                break;
+            case FormatRecord.sid:
+                formatRecords.add((FormatRecord) record);
+                break;
+            default:
+                outputNextStringRecord = addCell(record, rowBuffer, outputNextStringRecord);
+                break;
+        }
+
+        // Handle end of row
+        if (record instanceof LastCellOfRowDummyRecord) {
+
+            // We're onto a new row, stop here and hand the row over.
+            if (skippingSheet) {
+                rowBuffer.clear();
+                return;
+            }
+            rowBuffer.setRowNum(((LastCellOfRowDummyRecord) record).getRow());
+            rowBuffer.setSheet(sheet);
+            rowBuffer = readAhead ? commitRow(rowBuffer) : handOverRow(rowBuffer);
+        }
+
+    }
 
+    /**
+     * Add cell of record to row, records other than cells are ignored.
+     *
+     * @param record        record
+     * @param row           row being filled
+     * @param stringPending whether string result of formula is in this record
+     * @return whether string result of formula is in next record
+     */
+    private boolean addCell(org.apache.poi.hssf.record.Record record, RowBuffer row, boolean stringPending) {
+        if (record instanceof CellValueRecordInterface
+                && !isProjected(((CellValueRecordInterface) record).getColumn())) {
+            // Cell of column not read, including string result of formula which would follow.
+            row.addBlank();
+            return false;
+        }
+        switch (record.getSid()) {
             case BlankRecord.sid:
+                row.addBlank();
+                break;
             case BoolErrRecord.sid:
-                cellValue = Constant.EMPTY;
+                BoolErrRecord berec = (BoolErrRecord) record;
+                if (berec.isBoolean()) {
+                    row.addBoolean(berec.getBooleanValue());
+                } else {
+                    row.addError(Constant.EMPTY);
+                }
                 break;
 
             case FormulaRecord.sid:
@@ -149,55 +285,39 @@ public class XlsReader<T> extends AbstractExcelReader<T> implements HSSFListener
                     if (Double.isNaN(frec.getValue())) {
                         // Formula result is a string
                         // This is stored in the next record
-                        outputNextStringRecord = true;
-                    } else {
-                        if (DateUtil.isADateFormat(formatListener.getFormatIndex(frec), formatListener.getFormatString(frec))) {
-                            cellValue = String.valueOf(frec.getValue());
-                        } else {
-                            cellValue = formatListener.formatNumberDateCell(frec);
-                        }
+                        return true;
                     }
+                    row.addNumber(frec.getValue(), frec.getXFIndex());
                 } else {
-                    cellValue = HSSFFormulaParser.toFormulaString(stubWorkbook, frec.getParsedExpression());
+                    row.addText(HSSFFormulaParser.toFormulaString(stubWorkbook, frec.getParsedExpression()));
                 }
                 break;
             case StringRecord.sid:
-                if (outputNextStringRecord) {
+                if (stringPending) {
                     // String for formula
                     StringRecord srec = (StringRecord) record;
-                    cellValue = srec.getString();
-                    outputNextStringRecord = false;
+                    row.addText(srec.getString());
+                    return false;
                 }
                 break;
 
             case LabelRecord.sid:
                 LabelRecord lrec = (LabelRecord) record;
-
-                cellValue = lrec.getValue();
+                row.addText(lrec.getValue());
                 break;
             case LabelSSTRecord.sid:
                 LabelSSTRecord lsrec = (LabelSSTRecord) record;
-
-                if (sstRecord == null) {
-                    cellValue = "(No SST Record, can't identify string)";
-                } else {
-                    cellValue = sstRecord.getString(lsrec.getSSTIndex()).toString();
-                }
+                row.addShared(lsrec.getSSTIndex());
                 break;
             case NoteRecord.sid:
             case RKRecord.sid:
                 // TODO: Find object to match nrec.getShapeId()
-                cellValue = "(TODO)";
+                row.addText("(TODO)");
                 break;
 
             case NumberRecord.sid:
                 NumberRecord numrec = (NumberRecord) record;
-                // Format
-                if (DateUtil.isADateFormat(formatListener.getFormatIndex(numrec), formatListener.getFormatString(numrec))) {
-                    cellValue = String.valueOf(numrec.getValue());
-                } else {
-                    cellValue = formatListener.formatNumberDateCell(numrec);
-                }
+                row.addNumber(numrec.getValue(), numrec.getXFIndex());
                 break;
             default:
                 break;
@@ -205,49 +325,639 @@ public class XlsReader<T> extends AbstractExcelReader<T> implements HSSFListener
 
         // Handle missing column
         if (record instanceof MissingCellDummyRecord) {
-            cellValue = Constant.EMPTY;
+            row.addBlank();
         }
+        return stringPending;
+    }
 
-        // If we got something to print out, do so
-        if (cellValue != null) {
-            rowCells.add(cellValue);
+    /**
+     * Hand completed row over to caller thread and stop processing here.
+     *
+     * @param completed completed row
+     * @return row buffer for next row
+     */
+    private RowBuffer handOverRow(RowBuffer completed) {
+        HSSF.abort();
+        RowBuffer next = readyRow;
+        next.clear();
+        readyRow = completed;
+        rowReady = true;
+        return next;
+    }
+
+    /**
+     * Format completed row and commit it to producing batch, hand the batch over once full.
+     *
+     * @param completed completed row, the last one of producing batch
+     * @return row buffer for next row
+     */
+    @SneakyThrows
+    private RowBuffer commitRow(RowBuffer completed) {
+        if (isStopped()) {
+            throw new CancellationException();
         }
+        completed.resolve();
+        if (producingBatch.commit()) {
+            filledBatches.put(producingBatch);
+            producingBatch = freeBatches.take(this::isStopped);
+            if (producingBatch == null) {
+                throw new CancellationException();
+            }
+        }
+        return producingBatch.next();
+    }
 
-        // Handle end of row
-        if (record instanceof LastCellOfRowDummyRecord) {
+    /**
+     * Start producer thread, which processes all records into batches.
+     */
+    private void startReadAhead() {
+        // One batch more than cached for producer and one for consumer.
+        int batches = CACHED_BATCHES + 2;
+        filledBatches = new SpscRing<>(batches);
+        freeBatches = new SpscRing<>(batches);
+        for (int i = 0; i < batches; i++) {
+            freeBatches.offer(new RowBatch(batchSize, this::formatNumber, this::sharedString));
+        }
+        execute(() -> {
+            try {
+                producingBatch = freeBatches.take(this::isStopped);
+                if (producingBatch == null) {
+                    return;
+                }
+                rowBuffer = producingBatch.next();
+                while (HSSF.hasNext() && !isStopped()) {
+                    HSSF.process();
+                }
+                if (!producingBatch.isEmpty()) {
+                    filledBatches.put(producingBatch);
+                }
+            } catch (CancellationException e) {
+                // Stopped by cancel or limit.
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                if (HSSF.hasNext()) {
+                    HSSF.stop();
+                }
+                filledBatches.close();
+            }
+        });
+    }
+
+    /**
+     * Read workbook globals once, then start workers which decode sheets in parallel. Encrypted workbook can not be
+     * read from the middle, so it is read sequentially instead.
+     *
+     * @return true if workers are started
+     */
+    private boolean startParallel() {
+        parallelStarted = true;
+        List<org.apache.poi.hssf.record.Record> globals = HSSF.peek(0, XlsReader::peekGlobals);
+        if (globals == null) {
+            parallelSheets = false;
+            return false;
+        }
+        for (org.apache.poi.hssf.record.Record record : globals) {
+            formatListener.processRecordInternally(record);
+            processRecord(record);
+        }
+        orderedBsrArray = orderWorksheets(boundSheetRecords);
+        styleFormats = readStyleFormats();
+        int workers = Math.min(Runtime.getRuntime().availableProcessors(), Math.max(orderedBsrArray.length, 1));
+        for (int i = 0; i < workers; i++) {
+            execute(this::parseSheets);
+        }
+        return true;
+    }
 
-            // We're onto a new row
-            HSSF.abort();
-            // End the row
-            if (firstRowAsHeader && HSSF.isSheetFirstRow() && !headerConfirmed) {
-                headers.addAll(rowCells);
-            } else {
-                // Convert cell to entity.
-                currRow = converter.convert(headers, rowCells, getParameterizedType());
+    /**
+     * @param records records from beginning of workbook stream
+     * @return records of workbook globals, null if workbook is encrypted
+     */
+    private static List<org.apache.poi.hssf.record.Record> peekGlobals(RecordFactoryInputStream records) {
+        List<org.apache.poi.hssf.record.Record> globals = new ArrayList<>();
+        org.apache.poi.hssf.record.Record record;
+        while ((record = records.nextRecord()) != null && record.getSid() != EOFRecord.sid) {
+            if (record.getSid() == FilePassRecord.sid) {
+                return null;
+            }
+            // Workbook BOF record would be taken as a worksheet.
+            if (record.getSid() != BOFRecord.sid) {
+                globals.add(record);
             }
+        }
+        return globals;
+    }
 
-            // this invocation must be done here, but why? TODO add reason later.
-            rowCells.clear();
+    /**
+     * Decode claimed sheets until all sheets are claimed.
+     */
+    private void parseSheets() {
+        SheetChannel channel;
+        while ((channel = claimSheet()) != null) {
+            try {
+                channel.producing = channel.free.take(this::isStopped);
+                if (channel.producing == null) {
+                    return;
+                }
+                channel.row = channel.producing.next();
+                HSSF.processSheet(channel.offset, new MissingRecordAwareHSSFListener(channel));
+            } catch (CancellationException e) {
+                // Stopped by cancel or limit.
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable e) {
+                // Consumer would wait for unclaimed sheets forever, so claiming ends and read raises it.
+                failure = e;
+                synchronized (claimLock) {
+                    allClaimed = true;
+                }
+                return;
+            } finally {
+                channel.finish();
+            }
         }
+    }
 
+    /**
+     * Claim next selected sheet and hand its channel over to consumer.
+     *
+     * @return channel of claimed sheet, null if all sheets are claimed
+     */
+    private SheetChannel claimSheet() {
+        synchronized (claimLock) {
+            if (allClaimed || isStopped()) {
+                return null;
+            }
+            while (claimedSheets < orderedBsrArray.length) {
+                int index = claimedSheets++;
+                Sheet claimed = sheetAt(index);
+                if (!isSelected(claimed)) {
+                    // Skip sheet without decoding.
+                    continue;
+                }
+                SheetChannel channel = new SheetChannel(claimed, orderedBsrArray[index].getPositionOfBof());
+                claimedChannels.add(channel);
+                return channel;
+            }
+            allClaimed = true;
+            return null;
+        }
     }
 
+    /**
+     * Next row decoded by workers, sheets are merged in sheet order, or read as soon as ready.
+     *
+     * @return row, null if there is no more row
+     */
+    @SneakyThrows
+    private RowView nextParallelRow() {
+        if (parallelFinished || isStopped()) {
+            return null;
+        }
+        if (!parallelStarted && !startParallel()) {
+            return nextRow();
+        }
+        int idle = 0;
+        next:
+        while (!isStopped()) {
+            boolean claimed = allClaimed;
+            SheetChannel claimedChannel;
+            while ((claimedChannel = claimedChannels.poll()) != null) {
+                channels.add(claimedChannel);
+            }
+            if (channels.isEmpty()) {
+                if (claimed) {
+                    parallelFinished = true;
+                    // Workers are done, so file can be released.
+                    HSSF.stop();
+                    if (failure != null && !isStopped()) {
+                        throw new ExcelReadException("Read xls file failure.", failure);
+                    }
+                    return null;
+                }
+                idle = SpscRing.idle(idle);
+                continue;
+            }
+            // Headers come from the first sheet, so it is read alone until they are taken.
+            boolean ordered = inSheetOrder || (firstRowAsHeader && !headerConfirmed);
+            int count = ordered ? 1 : channels.size();
+            for (int i = 0; i < count; i++) {
+                int at = ordered ? 0 : (cursor + i) % channels.size();
+                SheetChannel channel = channels.get(at);
+                boolean sheetFirstRow = !channel.started;
+                RowBuffer row = channel.poll();
+                if (row == null) {
+                    if (channel.drained) {
+                        channels.remove(at);
+                        idle = 0;
+                        continue next;
+                    }
+                    continue;
+                }
+                cursor = at;
+                idle = 0;
+                if (sheetFirstRow && firstRowAsHeader) {
+                    // Only first sheet's first row is taken as headers, other sheet's first row is skipped.
+                    if (!headerConfirmed) {
+                        confirmHeaders(row.toList());
+                    }
+                    continue next;
+                }
+                return row;
+            }
+            idle = SpscRing.idle(idle);
+        }
+        return null;
+    }
+
+    /**
+     * SheetChannel: Rows of one sheet from its worker to consumer, filled and recycled batches travel through a pair
+     * of single producer single consumer rings. Worker fills rows as listener of sheet records.
+     */
+    private final class SheetChannel implements HSSFListener {
+
+        private final Sheet sheet;
+        private final int offset;
+        private final SpscRing<RowBatch> filled;
+        private final SpscRing<RowBatch> free;
+
+        /**
+         * Batch filled by worker, its row being filled, and whether string result of formula is in next record.
+         */
+        private RowBatch producing;
+        private RowBuffer row;
+        private boolean stringPending;
+
+        /**
+         * Batch held by consumer and index of its next row, recycled once drained.
+         */
+        private RowBatch consuming;
+        private int index;
+        private boolean started;
+        private boolean drained;
+
+        SheetChannel(Sheet sheet, int offset) {
+            this.sheet = sheet;
+            this.offset = offset;
+            // One batch more than cached for worker and one for consumer.
+            int batches = CACHED_BATCHES + 2;
+            this.filled = new SpscRing<>(batches);
+            this.free = new SpscRing<>(batches);
+            for (int i = 0; i < batches; i++) {
+                free.offer(new RowBatch(batchSize, XlsReader.this::formatNumber, XlsReader.this::sharedString));
+            }
+        }
+
+        @Override
+        @SneakyThrows
+        public void processRecord(org.apache.poi.hssf.record.Record record) {
+            if (!(record instanceof LastCellOfRowDummyRecord)) {
+                stringPending = addCell(record, row, stringPending);
+                return;
+            }
+            if (isStopped()) {
+                throw new CancellationException();
+            }
+            row.setRowNum(((LastCellOfRowDummyRecord) record).getRow());
+            row.setSheet(sheet);
+            // Format on worker, so that sheets are formatted in parallel too.
+            row.resolve();
+            if (producing.commit()) {
+                filled.put(producing);
+                // Not a method reference, which can not access protected method of outer super class.
+                producing = free.take(() -> isStopped());
+                if (producing == null) {
+                    throw new CancellationException();
+                }
+            }
+            row = producing.next();
+        }
+
+        /**
+         * Hand the last batch over and close, called by worker once sheet is decoded or failed.
+         */
+        void finish() {
+            try {
+                if (producing != null && !producing.isEmpty()) {
+                    filled.put(producing);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                filled.close();
+            }
+        }
+
+        /**
+         * Next row without waiting, called by consumer.
+         *
+         * @return row, null if no row is ready or channel is drained
+         */
+        RowBuffer poll() {
+            if (consuming != null) {
+                if (index < consuming.size()) {
+                    return consuming.get(index++);
+                }
+                consuming.clear();
+                free.offer(consuming);
+                consuming = null;
+            }
+            // Closed is read before polling, so rows put before closing are not missed.
+            boolean closed = filled.isClosed();
+            consuming = filled.poll();
+            if (consuming == null) {
+                drained = closed;
+                return null;
+            }
+            started = true;
+            index = 1;
+            return consuming.get(0);
+        }
+    }
+
+    /**
+     * Take next row filled by producer thread.
+     *
+     * @return row, null if there is no more row
+     */
+    @SneakyThrows
+    private RowBuffer takeRow() {
+        while (true) {
+            if (consumingBatch != null) {
+                if (consumingIndex < consumingBatch.size()) {
+                    return consumingBatch.get(consumingIndex++);
+                }
+                consumingBatch.clear();
+                freeBatches.offer(consumingBatch);
+            }
+            consumingBatch = filledBatches.take(this::isStopped);
+            consumingIndex = 0;
+            if (consumingBatch == null) {
+                if (failure != null && !isStopped()) {
+                    throw new ExcelReadException("Read xls file failure.", failure);
+                }
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Sheet of index in BOF order.
+     *
+     * @param index sheet index, starting from 0
+     * @return sheet
+     */
+    private Sheet sheetAt(int index) {
+        return new Sheet()
+                .setSheetNo(index + 1)
+                .setSheetName(orderedBsrArray[index].getSheetname());
+    }
+
+    /**
+     * Worksheets in BOF order, which are numbered as sheets. Other sheets are bound as well, but their BOF records are
+     * not of worksheet type, so that worksheets match BOF records of worksheet type one by one.
+     *
+     * @param records bound sheet records
+     * @return bound sheet records of worksheets
+     */
+    private static BoundSheetRecord[] orderWorksheets(List<BoundSheetRecord> records) {
+        return Arrays.stream(BoundSheetRecord.orderByBofPosition(records))
+                .filter(record -> (record.serialize()[SHEET_TYPE_OFFSET] & 0xFF) == WORKSHEET_TYPE)
+                .toArray(BoundSheetRecord[]::new);
+    }
+
+    /**
+     * Skip current sheet, whose BOF record is just processed, by seeking to the BOF record of next selected sheet.
+     * Reading stops if there is no more selected sheet.
+     */
+    private void skipSheet() {
+        if (encrypted) {
+            skippingSheet = true;
+            return;
+        }
+        int next = sheetIndex + 1;
+        while (next < orderedBsrArray.length && !isSelected(sheetAt(next))) {
+            next++;
+        }
+        if (next == orderedBsrArray.length) {
+            HSSF.stop();
+        } else {
+            // BOF record of next sheet increases the index.
+            sheetIndex = next - 1;
+            HSSF.seek(orderedBsrArray[next].getPositionOfBof());
+        }
+    }
+
+    /**
+     * Format of each XF record from workbook globals, or formats of the same records from cache.
+     *
+     * @return style formats
+     */
+    private StyleFormats readStyleFormats() {
+        if (!cacheGlobals) {
+            return buildStyleFormats();
+        }
+        MessageDigest digest = GlobalsCache.digest();
+        for (FormatRecord record : formatRecords) {
+            digest.update(record.serialize());
+        }
+        for (ExtendedFormatRecord record : xfRecords) {
+            digest.update(record.serialize());
+        }
+        byte[] key = digest.digest();
+        StyleFormats cached = GlobalsCache.getStyles(key);
+        return cached != null ? cached : GlobalsCache.putStyles(key, buildStyleFormats());
+    }
+
+    private StyleFormats buildStyleFormats() {
+        int[] formatIndexes = new int[xfRecords.size()];
+        String[] formatStrings = new String[xfRecords.size()];
+        for (int i = 0; i < formatIndexes.length; i++) {
+            formatIndexes[i] = xfRecords.get(i).getFormatIndex();
+            formatStrings[i] = formatIndexes[i] < 0 ? null : formatListener.getFormatString(formatIndexes[i]);
+        }
+        return new StyleFormats(formatIndexes, formatStrings, null);
+    }
+
+    /**
+     * Format numeric cell, date formatted cell keeps its excel date value.
+     *
+     * @param value   raw value
+     * @param xfIndex XF index
+     * @return formatted text
+     */
+    private String formatNumber(double value, int xfIndex) {
+        if (styleFormats.isDate(xfIndex)) {
+            return String.valueOf(value);
+        }
+        if (styleFormats.getFormatString(xfIndex) == null) {
+            return defaultFormat.get().format(value);
+        }
+        return styleFormats.format(value, xfIndex);
+    }
+
+    /**
+     * Resolve shared string.
+     *
+     * @param index SST index
+     * @return string
+     */
+    private String sharedString(int index) {
+        if (sstRecord == null) {
+            return "(No SST Record, can't identify string)";
+        }
+        return sstRecord.getString(index).toString();
+    }
+
+    /**
+     * Estimate rows of selected sheets by their dimensions record, read on streams of their own. Encrypted workbook
+     * can not be read from the middle, so its rows are unknown.
+     *
+     * @return rows estimated
+     */
     @Override
-    public T doRead() {
-        boolean hasNext = HSSF.hasNext();
-        if (hasNext) {
-            HSSF.process();
-            if (HSSF.isSheetFirstRow()) {
-                HSSF.leaveFirstRow();
-                if (firstRowAsHeader) {
-                    headerConfirmed = true;
-                    HSSF.process();
+    protected long estimateRows() {
+        try {
+            List<BoundSheetRecord> bsrs = HSSF.peek(0, XlsReader::peekBoundSheets);
+            if (bsrs == null) {
+                return Long.MAX_VALUE;
+            }
+            BoundSheetRecord[] ordered = orderWorksheets(bsrs);
+            long rows = 0;
+            for (int i = 0; i < ordered.length; i++) {
+                if (!isSelected(new Sheet().setSheetNo(i + 1).setSheetName(ordered[i].getSheetname()))) {
+                    continue;
                 }
+                int sheetRows = HSSF.peek(ordered[i].getPositionOfBof(), XlsReader::peekDimensionRows);
+                if (sheetRows < 0) {
+                    return Long.MAX_VALUE;
+                }
+                rows += firstRowAsHeader ? Math.max(sheetRows - 1, 0) : sheetRows;
+            }
+            return rows;
+        } catch (RuntimeException e) {
+            log.debug("Estimate xls rows failure.", e);
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * @param records records from beginning of workbook stream
+     * @return bound sheet records of workbook globals, null if workbook is encrypted
+     */
+    private static List<BoundSheetRecord> peekBoundSheets(RecordFactoryInputStream records) {
+        List<BoundSheetRecord> bsrs = new ArrayList<>();
+        org.apache.poi.hssf.record.Record record;
+        while ((record = records.nextRecord()) != null && !(record instanceof EOFRecord)) {
+            if (record instanceof FilePassRecord) {
+                return null;
+            }
+            if (record instanceof BoundSheetRecord) {
+                bsrs.add((BoundSheetRecord) record);
             }
-            T ret = currRow;
-            currRow = null;
-            return ret;
+        }
+        return bsrs;
+    }
+
+    /**
+     * @param records records from BOF record of a sheet
+     * @return rows between first and last row of sheet, -1 if sheet has no dimensions record
+     */
+    private static int peekDimensionRows(RecordFactoryInputStream records) {
+        org.apache.poi.hssf.record.Record record;
+        while ((record = records.nextRecord()) != null && !(record instanceof EOFRecord)) {
+            if (record instanceof DimensionsRecord) {
+                DimensionsRecord dimensions = (DimensionsRecord) record;
+                // Last row of dimensions record is one after the last row.
+                return Math.max(dimensions.getLastRow() - dimensions.getFirstRow(), 0);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    protected void release() {
+        if (HSSF.hasNext()) {
+            HSSF.stop();
+        }
+    }
+
+    @Override
+    protected RowView nextRow() {
+        if (parallelSheets) {
+            return nextParallelRow();
+        }
+        if (readAhead) {
+            return nextReadAheadRow();
+        }
+        if (isStopped()) {
+            if (HSSF.hasNext()) {
+                HSSF.stop();
+            }
+            return null;
+        }
+        if (!readNext()) {
+            return null;
+        }
+        if (HSSF.isSheetFirstRow()) {
+            HSSF.leaveFirstRow();
+            if (firstRowAsHeader) {
+                // Only first sheet's first row is taken as headers, other sheet's first row is skipped.
+                if (!headerConfirmed) {
+                    confirmHeaders(readyRow.toList());
+                }
+                if (!readNext()) {
+                    return null;
+                }
+            }
+        }
+        return readyRow;
+    }
+
+    /**
+     * Next row filled by producer thread, first row of each sheet is told by change of sheet.
+     *
+     * @return row, null if there is no more row
+     */
+    private RowView nextReadAheadRow() {
+        // Rows handed over before cancel or limit are not read either.
+        if (isStopped()) {
+            return null;
+        }
+        if (filledBatches == null) {
+            startReadAhead();
+        }
+        RowBuffer row;
+        while ((row = takeRow()) != null) {
+            boolean sheetFirstRow = row.getSheet() != lastSheet;
+            lastSheet = row.getSheet();
+            if (sheetFirstRow && firstRowAsHeader) {
+                // Only first sheet's first row is taken as headers, other sheet's first row is skipped.
+                if (!headerConfirmed) {
+                    confirmHeaders(row.toList());
+                }
+                continue;
+            }
+            return row;
         }
         return null;
     }
+
+    /**
+     * Process records until the end of next row.
+     *
+     * @return true if a row is read into buffer.
+     */
+    private boolean readNext() {
+        rowReady = false;
+        if (HSSF.hasNext()) {
+            HSSF.process();
+        }
+        return rowReady;
+    }
 }
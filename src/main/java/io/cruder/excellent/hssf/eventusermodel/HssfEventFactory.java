@@ -18,15 +18,21 @@ package io.cruder.excellent.hssf.eventusermodel;
 
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
 import org.apache.poi.hssf.eventusermodel.HSSFUserException;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.EOFRecord;
 import org.apache.poi.hssf.record.Record;
 import org.apache.poi.hssf.record.RecordFactoryInputStream;
 import org.apache.poi.poifs.filesystem.DirectoryNode;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
+import java.util.function.Function;
 
 import static org.apache.poi.hssf.model.InternalWorkbook.WORKBOOK_DIR_ENTRY_NAMES;
 
@@ -39,6 +45,11 @@ import static org.apache.poi.hssf.model.InternalWorkbook.WORKBOOK_DIR_ENTRY_NAME
 @Slf4j
 public class HssfEventFactory {
 
+    /**
+     * Buffer of streams of their own, so that file system is locked once per buffer.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     /**
      * Record stream.
      */
@@ -55,9 +66,10 @@ public class HssfEventFactory {
     private POIFSFileSystem poifsFileSystem;
 
     /**
-     * Input stream.
+     * Input stream, and name of its workbook entry.
      */
     private InputStream inputStream;
+    private String entryName;
 
     /**
      * If there is next record.
@@ -103,12 +115,7 @@ public class HssfEventFactory {
      */
     private void processWorkbookEvents(HssfRequest req, DirectoryNode dir) throws IOException {
         if (inputStream == null) {
-            String name = Arrays.stream(WORKBOOK_DIR_ENTRY_NAMES)
-                    .filter(potentialName -> dir.getEntryNames().contains(potentialName))
-                    .findAny()
-                    // Default entry name "Workbook".
-                    .orElse(WORKBOOK_DIR_ENTRY_NAMES[0]);
-            inputStream = dir.createDocumentInputStream(name);
+            inputStream = openShared();
         }
         processEvents(req, inputStream);
     }
@@ -153,13 +160,7 @@ public class HssfEventFactory {
         while (!abort) {
             Record r = recordStream.nextRecord();
             if (r == null) {
-                hasNext = false;
-                try {
-                    in.close();
-                    poifsFileSystem.close();
-                } catch (Exception e) {
-                    log.error(e.getMessage(), e);
-                }
+                stop();
                 break;
             }
             userCode = req.processRecord(r);
@@ -170,6 +171,118 @@ public class HssfEventFactory {
 
     }
 
+    /**
+     * Continue processing from the record at given offset of workbook stream, such as BOF record of a sheet.
+     * <p>Records between are never read, so a sheet can be skipped without being parsed.</p>
+     *
+     * @param offset offset of record in workbook stream
+     */
+    @SneakyThrows
+    public void seek(int offset) {
+        inputStream.close();
+        inputStream = openShared();
+        skip(inputStream, offset);
+        recordStream = new RecordFactoryInputStream(inputStream, false);
+    }
+
+    /**
+     * Read records from given offset of workbook stream on a stream of its own, processing is not disturbed.
+     *
+     * @param offset offset of record in workbook stream
+     * @param reader reader of records
+     * @return result of reader
+     */
+    @SneakyThrows
+    public <R> R peek(int offset, Function<RecordFactoryInputStream, R> reader) {
+        try (InputStream in = openShared()) {
+            skip(in, offset);
+            return reader.apply(new RecordFactoryInputStream(in, false));
+        }
+    }
+
+    /**
+     * Process records of a sheet, from its BOF record to its EOF record, on a stream of its own. Several sheets can
+     * be processed by threads at a time, and processing of this factory is not disturbed.
+     *
+     * @param offset   offset of BOF record of sheet in workbook stream
+     * @param listener listener of records
+     */
+    @SneakyThrows
+    public void processSheet(int offset, HSSFListener listener) {
+        try (InputStream in = openShared()) {
+            skip(in, offset);
+            RecordFactoryInputStream records = new RecordFactoryInputStream(in, false);
+            // Charts embedded in sheet are substreams of their own BOF and EOF records.
+            int depth = 0;
+            Record record;
+            while ((record = records.nextRecord()) != null) {
+                listener.processRecord(record);
+                if (record.getSid() == BOFRecord.sid) {
+                    depth++;
+                } else if (record.getSid() == EOFRecord.sid && --depth <= 0) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Open workbook stream which can be read along with streams of other threads, processing stream included. Data
+     * source of file system is positioned by each read, so reads are serialized by locking file system, once per
+     * buffer.
+     *
+     * @return buffered stream
+     */
+    private InputStream openShared() throws IOException {
+        String name = entryName();
+        synchronized (poifsFileSystem) {
+            return new BufferedInputStream(new LockedInputStream(
+                    poifsFileSystem.getRoot().createDocumentInputStream(name), poifsFileSystem), BUFFER_SIZE);
+        }
+    }
+
+    /**
+     * @return name of workbook entry, default entry name "Workbook".
+     */
+    private synchronized String entryName() {
+        if (entryName == null) {
+            DirectoryNode dir = poifsFileSystem.getRoot();
+            entryName = Arrays.stream(WORKBOOK_DIR_ENTRY_NAMES)
+                    .filter(potentialName -> dir.getEntryNames().contains(potentialName))
+                    .findAny()
+                    .orElse(WORKBOOK_DIR_ENTRY_NAMES[0]);
+        }
+        return entryName;
+    }
+
+    private static void skip(InputStream in, long offset) throws IOException {
+        long remaining = offset;
+        while (remaining > 0) {
+            long skipped = in.skip(remaining);
+            if (skipped <= 0) {
+                break;
+            }
+            remaining -= skipped;
+        }
+    }
+
+    /**
+     * Stop processing and release file, no record will be read any more.
+     */
+    public void stop() {
+        hasNext = false;
+        abort = true;
+        try {
+            // Stream is not opened if stopped before the first record.
+            if (inputStream != null) {
+                inputStream.close();
+            }
+            poifsFileSystem.close();
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+        }
+    }
+
     /**
      * @return True if there is new record.
      */
@@ -204,4 +317,45 @@ public class HssfEventFactory {
     public void leaveFirstRow() {
         this.firstSheetRow = false;
     }
+
+    /**
+     * LockedInputStream: Input stream whose reads hold a lock.
+     */
+    private static final class LockedInputStream extends FilterInputStream {
+
+        private final Object lock;
+
+        LockedInputStream(InputStream in, Object lock) {
+            super(in);
+            this.lock = lock;
+        }
+
+        @Override
+        public int read() throws IOException {
+            synchronized (lock) {
+                return in.read();
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            synchronized (lock) {
+                return in.read(b, off, len);
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            synchronized (lock) {
+                return in.skip(n);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (lock) {
+                in.close();
+            }
+        }
+    }
 }
@@ -0,0 +1,131 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.CellType;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BeanBinder: Row binder which resolves column index of every field once and fills beans by method handles.
+ * <p>With raw values, numeric cells are bound to numeric and date fields without going through text.</p>
+ *
+ * @author cruder
+ * @since 2020-03-18
+ */
+@Slf4j
+final class BeanBinder<T> implements RowBinder<T> {
+
+    /**
+     * Bean factory, () -> Object.
+     */
+    private final MethodHandle factory;
+
+    /**
+     * Field binders of mapped columns.
+     */
+    private final FieldBinder[] binders;
+
+    /**
+     * Column index of each field binder.
+     */
+    private final int[] columns;
+
+    /**
+     * Titles of fields without column.
+     */
+    private final List<String> missing;
+
+    /**
+     * Bind numeric cells from raw value.
+     */
+    private final boolean rawValues;
+
+    BeanBinder(List<String> headers, Class<T> clazz, List<FieldBinder> fieldBinders, boolean rawValues) {
+        Map<String, Integer> headerIndex = new HashMap<>(headers.size() * 2);
+        for (int i = 0; i < headers.size(); i++) {
+            // Null header is a column not read.
+            if (headers.get(i) == null) {
+                continue;
+            }
+            if (headerIndex.putIfAbsent(headers.get(i), i) != null) {
+                throw new IllegalStateException(String.format("Duplicate header [%s].", headers.get(i)));
+            }
+        }
+        List<FieldBinder> mapped = new ArrayList<>(fieldBinders.size());
+        List<Integer> mappedColumns = new ArrayList<>(fieldBinders.size());
+        List<String> missing = new ArrayList<>();
+        for (FieldBinder binder : fieldBinders) {
+            Integer index = headerIndex.get(binder.getTitle());
+            // Fields without column are never filled.
+            if (index != null) {
+                mapped.add(binder);
+                mappedColumns.add(index);
+            } else {
+                missing.add(binder.getTitle());
+            }
+        }
+        this.factory = FieldBinder.resolveFactory(clazz);
+        this.binders = mapped.toArray(new FieldBinder[0]);
+        this.columns = mappedColumns.stream().mapToInt(Integer::intValue).toArray();
+        this.missing = Collections.unmodifiableList(missing);
+        this.rawValues = rawValues;
+    }
+
+    @Override
+    public int[] columns() {
+        return columns.clone();
+    }
+
+    @Override
+    public List<String> missing() {
+        return missing;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T bind(RowView row) {
+        T bean = null;
+        try {
+            Object instance = (Object) factory.invokeExact();
+            bean = (T) instance;
+            for (int i = 0; i < binders.length; i++) {
+                int column = columns[i];
+                FieldBinder binder = binders[i];
+                if (rawValues && binder.isNumeric() && row.getCellType(column) == CellType.NUMERIC) {
+                    binder.bind(bean, row.getNumber(column));
+                    continue;
+                }
+                String val = row.getString(column);
+                if (val != null) {
+                    // Invoke setter only when cell value is not null.
+                    binder.bind(bean, val);
+                }
+            }
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            log.warn("Convert excel row value to bean field failure.", e);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import io.cruder.excellent.exception.ExcelWriteException;
+
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * BeanEncoder: Row encoder compiled once per class, which writes fields of bean by method handles in order of
+ * {@link io.cruder.excellent.ExcelColumn#order()} and then of declaration.
+ * <p>Numbers, booleans and dates are written as native cells, without going through text.</p>
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+final class BeanEncoder<T> implements RowEncoder<T> {
+
+    /**
+     * Encoders compiled by class, shared by writers as they keep no state.
+     */
+    private static final ConcurrentMap<Class<?>, BeanEncoder<?>> ENCODERS = new ConcurrentHashMap<>();
+
+    private final FieldEncoder[] encoders;
+
+    private BeanEncoder(Class<T> clazz) {
+        this.encoders = Stream.of(clazz.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .map(field -> FieldEncoder.resolve(field, clazz))
+                .sorted(Comparator.comparingInt(FieldEncoder::getOrder))
+                .toArray(FieldEncoder[]::new);
+    }
+
+    /**
+     * @param clazz bean class
+     * @return encoder compiled once for class
+     */
+    @SuppressWarnings("unchecked")
+    static <T> BeanEncoder<T> of(Class<T> clazz) {
+        return (BeanEncoder<T>) ENCODERS.computeIfAbsent(clazz, BeanEncoder::new);
+    }
+
+    @Override
+    public List<String> titles() {
+        return Arrays.stream(encoders).map(FieldEncoder::getTitle).collect(Collectors.toList());
+    }
+
+    @Override
+    public void encode(T row, CellSink cells) {
+        for (FieldEncoder encoder : encoders) {
+            try {
+                encoder.encode(row, cells);
+            } catch (ExcelWriteException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new ExcelWriteException(String.format("Get field [%s] failure.", encoder.getTitle()), e);
+            }
+        }
+    }
+}
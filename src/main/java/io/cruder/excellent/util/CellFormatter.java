@@ -0,0 +1,35 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+/**
+ * CellFormatter: Formatter of numeric cells, invoked only when cell text is asked for.
+ *
+ * @author cruder
+ * @since 2020-03-20
+ */
+@FunctionalInterface
+public interface CellFormatter {
+
+    /**
+     * Format numeric cell.
+     *
+     * @param value raw value
+     * @param style style index of cell, XF index for xls
+     * @return formatted text
+     */
+    String format(double value, int style);
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+/**
+ * CellParsers: Typed parsers of cell text and raw numbers, bound into setter method handles by {@link FieldBinder}.
+ *
+ * @author cruder
+ * @since 2020-03-18
+ */
+@UtilityClass
+class CellParsers {
+
+    static byte parseByte(String val) {
+        return Byte.parseByte(val);
+    }
+
+    static short parseShort(String val) {
+        return new BigDecimal(val).shortValue();
+    }
+
+    static int parseInt(String val) {
+        return new BigDecimal(val).intValue();
+    }
+
+    static long parseLong(String val) {
+        return new BigDecimal(val).longValue();
+    }
+
+    static float parseFloat(String val) {
+        return new BigDecimal(val).floatValue();
+    }
+
+    static double parseDouble(String val) {
+        return new BigDecimal(val).doubleValue();
+    }
+
+    static Date parseDate(String val, DateTimeFormatter formatter) {
+        double serial = ExcelDates.serialOf(val);
+        if (!Double.isNaN(serial)) {
+            return ExcelDates.toDate(serial);
+        }
+        return Date.from(LocalDateTime.parse(val, formatter).atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    static LocalDateTime parseLocalDateTime(String val, DateTimeFormatter formatter) {
+        double serial = ExcelDates.serialOf(val);
+        if (!Double.isNaN(serial)) {
+            return ExcelDates.toLocalDateTime(serial);
+        }
+        return LocalDateTime.parse(val, formatter);
+    }
+
+    static LocalDate parseLocalDate(String val, DateTimeFormatter formatter) {
+        double serial = ExcelDates.serialOf(val);
+        if (!Double.isNaN(serial)) {
+            return ExcelDates.toLocalDate(serial);
+        }
+        return LocalDate.parse(val, formatter);
+    }
+
+    static byte byteValue(double val) {
+        return (byte) val;
+    }
+
+    static short shortValue(double val) {
+        return (short) val;
+    }
+
+    static int intValue(double val) {
+        return (int) val;
+    }
+
+    static long longValue(double val) {
+        return (long) val;
+    }
+
+    static float floatValue(double val) {
+        return (float) val;
+    }
+
+    static Date toDate(double excelDate) {
+        return ExcelDates.toDate(excelDate);
+    }
+
+    static LocalDateTime toLocalDateTime(double excelDate) {
+        return ExcelDates.toLocalDateTime(excelDate);
+    }
+
+    static LocalDate toLocalDate(double excelDate) {
+        return ExcelDates.toLocalDate(excelDate);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * CellSink: Cells of one row written in column order, by type of cell.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public interface CellSink {
+
+    /**
+     * Empty cell, which keeps position of cells after it.
+     */
+    void blank();
+
+    /**
+     * @param text string cell
+     */
+    void text(String text);
+
+    /**
+     * @param number numeric cell
+     */
+    void number(double number);
+
+    /**
+     * Whole number cell. Sinks whose numeric cells hold double write it as number while double holds it exactly,
+     * otherwise as text of its digits, so that ids are never rounded.
+     *
+     * @param number numeric cell
+     */
+    default void number(long number) {
+        // Double holds whole numbers exactly up to 2^53.
+        if (number >= -(1L << 53) && number <= 1L << 53) {
+            number((double) number);
+        } else {
+            text(Long.toString(number));
+        }
+    }
+
+    /**
+     * Decimal number cell. Sinks whose numeric cells hold double write it as number if the double reads back as the
+     * same decimal, otherwise as its plain text, so that amounts are never rounded.
+     *
+     * @param number numeric cell
+     */
+    default void number(BigDecimal number) {
+        double value = number.doubleValue();
+        if (!Double.isInfinite(value) && BigDecimal.valueOf(value).compareTo(number) == 0) {
+            number(value);
+        } else {
+            text(number.toPlainString());
+        }
+    }
+
+    /**
+     * Numeric cell of boxed or big number, written by its exact value: integral numbers as long, decimals and
+     * floats by their digits, doubles as they are.
+     *
+     * @param number numeric cell
+     */
+    default void number(Number number) {
+        if (number instanceof Double) {
+            number(number.doubleValue());
+        } else if (number instanceof Long || number instanceof Integer || number instanceof Short
+                || number instanceof Byte) {
+            number(number.longValue());
+        } else if (number instanceof BigDecimal) {
+            number((BigDecimal) number);
+        } else if (number instanceof BigInteger) {
+            number(new BigDecimal((BigInteger) number));
+        } else if (number instanceof Float) {
+            number(number.floatValue());
+        } else {
+            try {
+                number(new BigDecimal(number.toString()));
+            } catch (NumberFormatException e) {
+                number(number.doubleValue());
+            }
+        }
+    }
+
+    /**
+     * Float cell, written by its decimal digits rather than as the double widened from it.
+     *
+     * @param number numeric cell
+     */
+    default void number(float number) {
+        if (Float.isNaN(number) || Float.isInfinite(number)) {
+            number((double) number);
+        } else {
+            number(new BigDecimal(Float.toString(number)).stripTrailingZeros());
+        }
+    }
+
+    /**
+     * @param value boolean cell
+     */
+    void bool(boolean value);
+
+    /**
+     * Date cell, written by sink as serial with excel format of pattern, or as text of pattern.
+     *
+     * @param dateTime date time
+     * @param pattern  pattern of {@link java.time.format.DateTimeFormatter}
+     */
+    default void date(LocalDateTime dateTime, String pattern) {
+        text(ExcelDates.formatter(pattern).format(dateTime));
+    }
+
+    /**
+     * Write value by its type, numbers by their exact value, booleans as they are, dates in default format and
+     * others as their string.
+     *
+     * @param value value, nullable for blank cell
+     */
+    default void value(Object value) {
+        if (value == null) {
+            blank();
+        } else if (value instanceof Number) {
+            number((Number) value);
+        } else if (value instanceof Boolean) {
+            bool((Boolean) value);
+        } else if (value instanceof LocalDateTime) {
+            date((LocalDateTime) value, Constant.DEFAULT_DATETIME_FORMAT);
+        } else if (value instanceof LocalDate) {
+            date(((LocalDate) value).atStartOfDay(), Constant.DEFAULT_DATE_FORMAT);
+        } else if (value instanceof Date) {
+            date(ExcelDates.toLocalDateTime((Date) value), Constant.DEFAULT_DATETIME_FORMAT);
+        } else {
+            text(value.toString());
+        }
+    }
+}
@@ -51,6 +51,11 @@ public class Constant {
      */
     public final static String EMPTY = "";
 
+    /**
+     * Comma, default delimiter of csv
+     */
+    public final static char COMMA = ',';
+
     /**
      * Default datetime format
      */
@@ -65,4 +70,9 @@ public class Constant {
      * Zero
      */
     public final static String ZERO = "0";
+
+    /**
+     * Default rows of one batch handed over by parse thread
+     */
+    public final static int DEFAULT_BATCH_SIZE = 512;
 }
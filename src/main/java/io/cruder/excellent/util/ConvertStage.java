@@ -0,0 +1,207 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import io.cruder.excellent.exception.ExcelReadException;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * ConvertStage: Converts rows to objects on workers, batch by batch.
+ * <p>Reading thread copies rows into pooled batches and submits them, at most {@code workers} batches are in
+ * conversion at a time. Batches are handed back in reading order, or as soon as converted if order does not
+ * matter. Batches are pooled and taken back by reading thread only, so no lock is involved besides the
+ * executor.</p>
+ * <p>Rows are read as text on workers, so formatter and shared strings of rows must be thread safe.</p>
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public final class ConvertStage<T> {
+
+    /**
+     * Source of rows, null if there is no more row.
+     */
+    private final Supplier<RowView> source;
+
+    /**
+     * Binder, asked for after the first row is read, when headers are known.
+     */
+    private final Supplier<RowBinder<T>> binder;
+
+    private final Executor executor;
+    private final int workers;
+    private final int batchSize;
+    private final boolean inRowOrder;
+
+    /**
+     * Batches in conversion, in submit order.
+     */
+    private final ArrayDeque<Chunk<T>> pending;
+
+    /**
+     * Batches free for reuse.
+     */
+    private final ArrayDeque<Chunk<T>> free;
+
+    /**
+     * Converted batch being read.
+     */
+    private Chunk<T> current;
+    private boolean drained;
+
+    /**
+     * Create stage.
+     *
+     * @param source     source of rows, invoked by reading thread only
+     * @param binder     binder of rows, invoked by reading thread only
+     * @param executor   executor of workers
+     * @param workers    maximal batches in conversion
+     * @param batchSize  rows of one batch
+     * @param inRowOrder hand batches back in reading order
+     */
+    public ConvertStage(Supplier<RowView> source, Supplier<RowBinder<T>> binder, Executor executor, int workers,
+                        int batchSize, boolean inRowOrder) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Workers must be positive.");
+        }
+        this.source = source;
+        this.binder = binder;
+        this.executor = executor;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.inRowOrder = inRowOrder;
+        this.pending = new ArrayDeque<>(workers);
+        this.free = new ArrayDeque<>(workers + 1);
+    }
+
+    /**
+     * Next converted object.
+     *
+     * @return object, null if there is no more row
+     * @throws ExcelReadException if conversion fails
+     */
+    public T next() {
+        while (current == null || current.position == current.rows.size()) {
+            if (current != null) {
+                free.push(current);
+                current = null;
+            }
+            submit();
+            if (pending.isEmpty()) {
+                return null;
+            }
+            current = await();
+        }
+        return current.results[current.position++];
+    }
+
+    /**
+     * Fill and submit batches until workers are busy or source is drained.
+     */
+    private void submit() {
+        while (!drained && pending.size() < workers) {
+            Chunk<T> chunk = free.isEmpty() ? new Chunk<>(batchSize) : free.pop();
+            chunk.rows.clear();
+            chunk.position = 0;
+            RowView row;
+            while ((row = source.get()) != null) {
+                chunk.rows.next().copyFrom(row);
+                if (chunk.rows.commit()) {
+                    break;
+                }
+            }
+            if (chunk.rows.isEmpty()) {
+                drained = true;
+                free.push(chunk);
+                return;
+            }
+            RowBinder<T> rowBinder = binder.get();
+            chunk.task = CompletableFuture.runAsync(() -> chunk.convert(rowBinder), executor);
+            pending.add(chunk);
+        }
+    }
+
+    /**
+     * Wait for next batch, the eldest one in row order, or any converted one otherwise.
+     *
+     * @return converted batch
+     */
+    private Chunk<T> await() {
+        Chunk<T> chunk = inRowOrder ? pending.peek() : done();
+        if (chunk == null) {
+            // Wait for any batch, converted or failed, failure is raised by joining the batch itself below.
+            CompletableFuture.anyOf(pending.stream().map(c -> c.task).toArray(CompletableFuture[]::new))
+                    .exceptionally(e -> null).join();
+            chunk = done();
+        }
+        try {
+            chunk.task.join();
+        } catch (CompletionException e) {
+            throw new ExcelReadException("Convert rows failure.", e.getCause());
+        } finally {
+            pending.remove(chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * @return the eldest converted batch, null if none
+     */
+    private Chunk<T> done() {
+        for (Chunk<T> chunk : pending) {
+            if (chunk.task.isDone()) {
+                return chunk;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Chunk: Batch of rows with their converted objects.
+     *
+     * @author cruder
+     * @since 2020-03-26
+     */
+    private static final class Chunk<T> {
+
+        private final RowBatch rows;
+        private final T[] results;
+        private int position;
+        private CompletableFuture<Void> task;
+
+        @SuppressWarnings("unchecked")
+        private Chunk(int batchSize) {
+            rows = new RowBatch(batchSize);
+            results = (T[]) new Object[batchSize];
+        }
+
+        /**
+         * Convert all rows, on worker.
+         *
+         * @param binder row binder
+         */
+        private void convert(RowBinder<T> binder) {
+            for (int i = 0; i < rows.size(); i++) {
+                results[i] = binder.bind(rows.get(i));
+            }
+        }
+    }
+}
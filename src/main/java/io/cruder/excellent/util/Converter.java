@@ -15,6 +15,7 @@
 
 package io.cruder.excellent.util;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -36,4 +37,17 @@ public interface Converter {
      */
     <T> T convert(List<String> headers, List<String> rowCells, Class<T> clazz);
 
+    /**
+     * Compile a binder for the header layout, readers call it once and reuse the binder for every row.
+     * <p>Default binder delegates to {@link Converter#convert(List, List, Class)} with a snapshot of headers.</p>
+     *
+     * @param headers header name list
+     * @param clazz   class to be converted
+     * @return row binder
+     */
+    default <T> RowBinder<T> compile(List<String> headers, Class<T> clazz) {
+        List<String> layout = new ArrayList<>(headers);
+        return row -> convert(layout, row.toList(), clazz);
+    }
+
 }
@@ -0,0 +1,202 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import lombok.experimental.UtilityClass;
+import org.apache.poi.util.LocaleUtil;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * ExcelDates: Excel date serials turned into java dates by arithmetic, in place of
+ * {@link org.apache.poi.ss.usermodel.DateUtil#getJavaDate(double)} which goes through {@link java.util.Calendar}.
+ * <p>Serials are counted in 1900 date system as excel and POI do, which takes 1900 as a leap year.</p>
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+@UtilityClass
+public class ExcelDates {
+
+    /**
+     * Day 0 of serials from 1900-03-01 on, days before the fake 1900-02-29 are one day later.
+     */
+    private static final LocalDate EPOCH = LocalDate.of(1899, 12, 30);
+    private static final int FIRST_DAY_AFTER_LEAP = 61;
+    private static final long DAY_MILLISECONDS = 86_400_000L;
+    private static final long NANOS_PER_MILLISECOND = 1_000_000L;
+
+    /**
+     * Formatters compiled by pattern, shared by all fields of the same format.
+     */
+    private static final ConcurrentMap<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
+    /**
+     * @param pattern pattern of {@link DateTimeFormatter}
+     * @return formatter compiled once for pattern
+     */
+    public static DateTimeFormatter formatter(String pattern) {
+        return FORMATTERS.computeIfAbsent(pattern, DateTimeFormatter::ofPattern);
+    }
+
+    /**
+     * Serial of cell text, which is formatted as plain number for date formatted cell.
+     *
+     * @param val cell text
+     * @return serial, NaN if text is not a plain number
+     */
+    static double serialOf(String val) {
+        String text = val.trim();
+        if (text.isEmpty() || !isNumberStart(text.charAt(0))) {
+            return Double.NaN;
+        }
+        char[] chars = text.toCharArray();
+        return Numbers.isNumber(chars, 0, chars.length) ? Numbers.parseDouble(chars, 0, chars.length) : Double.NaN;
+    }
+
+    /**
+     * Local date time of serial, rounded to millisecond.
+     *
+     * @param serial excel date serial
+     * @return local date time, null if serial is negative or NaN
+     */
+    static LocalDateTime toLocalDateTime(double serial) {
+        if (!(serial >= 0)) {
+            return null;
+        }
+        int wholeDays = (int) Math.floor(serial);
+        long milliseconds = (long) ((serial - wholeDays) * DAY_MILLISECONDS + 0.5);
+        long days = wholeDays < FIRST_DAY_AFTER_LEAP ? wholeDays + 1 : wholeDays;
+        return EPOCH.plusDays(days).atStartOfDay().plusNanos(milliseconds * NANOS_PER_MILLISECOND);
+    }
+
+    static LocalDate toLocalDate(double serial) {
+        LocalDateTime dateTime = toLocalDateTime(serial);
+        return dateTime == null ? null : dateTime.toLocalDate();
+    }
+
+    /**
+     * Date of serial in time zone of POI, as {@link org.apache.poi.ss.usermodel.DateUtil#getJavaDate(double)}.
+     *
+     * @param serial excel date serial
+     * @return date, null if serial is negative or NaN
+     */
+    static Date toDate(double serial) {
+        LocalDateTime dateTime = toLocalDateTime(serial);
+        if (dateTime == null) {
+            return null;
+        }
+        // Calendar takes the later offset of an overlap, such as the repeated hour when summer time ends.
+        return Date.from(dateTime.atZone(LocaleUtil.getUserTimeZone().toZoneId()).withLaterOffsetAtOverlap()
+                .toInstant());
+    }
+
+    /**
+     * Local date time of date in time zone of POI, the reverse of {@link ExcelDates#toDate(double)}.
+     *
+     * @param date date
+     * @return local date time
+     */
+    static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), LocaleUtil.getUserTimeZone().toZoneId());
+    }
+
+    /**
+     * Serial of local date time, the reverse of {@link ExcelDates#toLocalDateTime(double)}.
+     *
+     * @param dateTime local date time
+     * @return serial, NaN if date is before day 0 which excel can not hold
+     */
+    public static double toSerial(LocalDateTime dateTime) {
+        long days = ChronoUnit.DAYS.between(EPOCH, dateTime.toLocalDate());
+        if (days < 1) {
+            return Double.NaN;
+        }
+        long wholeDays = days < FIRST_DAY_AFTER_LEAP ? days - 1 : days;
+        return wholeDays + dateTime.toLocalTime().toNanoOfDay() / (DAY_MILLISECONDS * (double) NANOS_PER_MILLISECOND);
+    }
+
+    /**
+     * Excel number format of date pattern, such as "yyyy-mm-dd hh:mm:ss" of "yyyy-MM-dd HH:mm:ss", so that cells
+     * written as serial show as the pattern formats.
+     *
+     * @param pattern pattern of {@link DateTimeFormatter}
+     * @return excel number format
+     */
+    public static String excelFormat(String pattern) {
+        StringBuilder format = new StringBuilder(pattern.length() + 8);
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            switch (c) {
+                case 'y':
+                case 'd':
+                case 'h':
+                case 'm':
+                case 's':
+                    format.append(c);
+                    break;
+                case 'M':
+                    format.append('m');
+                    break;
+                case 'H':
+                case 'k':
+                    format.append('h');
+                    break;
+                case 'E':
+                    int count = 1;
+                    while (i + 1 < pattern.length() && pattern.charAt(i + 1) == 'E') {
+                        count++;
+                        i++;
+                    }
+                    format.append(count > 3 ? "dddd" : "ddd");
+                    break;
+                case 'S':
+                    format.append('0');
+                    break;
+                case 'a':
+                    format.append("AM/PM");
+                    break;
+                case '\'':
+                    int end = pattern.indexOf('\'', i + 1);
+                    end = end < 0 ? pattern.length() : end;
+                    format.append('"').append(pattern, i + 1, end).append('"');
+                    i = end;
+                    break;
+                case '-':
+                case '/':
+                case ':':
+                case '.':
+                case ' ':
+                    format.append(c);
+                    break;
+                default:
+                    format.append('\\').append(c);
+                    break;
+            }
+        }
+        return format.toString();
+    }
+
+    private static boolean isNumberStart(char c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.';
+    }
+}
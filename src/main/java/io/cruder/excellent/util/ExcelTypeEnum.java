@@ -20,6 +20,10 @@ import org.apache.poi.poifs.filesystem.FileMagic;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Locale;
 
 /**
  * ExcelTypeEnum: Enum of excel type.
@@ -36,26 +40,81 @@ public enum ExcelTypeEnum {
     /**
      * HSSF
      */
-    XLS;
+    XLS,
+
+    /**
+     * Delimited text, such as csv and tsv
+     */
+    CSV;
+
+    /**
+     * Bytes of file head checked by {@link FileMagic}.
+     */
+    private static final int MAGIC_LENGTH = 8;
 
     ExcelTypeEnum() {
     }
 
     public static ExcelTypeEnum valueOf(InputStream inputStream) {
+        return valueOf(null, inputStream);
+    }
+
+    /**
+     * Excel type of stream by its magic, or by name of its file. Delimited text has no magic, so it is told by file
+     * name ending with ".csv" or ".tsv" only.
+     *
+     * @param fileName    file name, nullable
+     * @param inputStream input stream
+     * @return excel type
+     */
+    public static ExcelTypeEnum valueOf(String fileName, InputStream inputStream) {
         try {
             if (!inputStream.markSupported()) {
                 inputStream = FileMagic.prepareToCheckMagic(inputStream);
             }
-            FileMagic fileMagic = FileMagic.valueOf(inputStream);
-            if (FileMagic.OLE2.equals(fileMagic)) {
-                return XLS;
-            }
-            if (FileMagic.OOXML.equals(fileMagic)) {
-                return XLSX;
+            return valueOf(FileMagic.valueOf(inputStream), fileName);
+        } catch (IOException e) {
+            throw new FileNotSupportedException(e);
+        }
+    }
+
+    /**
+     * Excel type of channel, read from its head without moving channel position. Channel of delimited text has no
+     * magic, which is read by type given.
+     *
+     * @param channel file channel
+     * @return excel type
+     */
+    public static ExcelTypeEnum valueOf(FileChannel channel) {
+        try {
+            ByteBuffer head = ByteBuffer.allocate(MAGIC_LENGTH);
+            while (head.hasRemaining() && channel.read(head, head.position()) > 0) {
+                // Read until head is full or end of file.
             }
-            throw new FileNotSupportedException("The file is not xls or xlsx or csv, please re-select.");
+            return valueOf(FileMagic.valueOf(Arrays.copyOf(head.array(), head.position())), null);
         } catch (IOException e) {
             throw new FileNotSupportedException(e);
         }
     }
+
+    /**
+     * @param fileMagic magic of file head
+     * @param fileName  file name, nullable
+     * @return excel type
+     */
+    private static ExcelTypeEnum valueOf(FileMagic fileMagic, String fileName) {
+        if (FileMagic.OLE2.equals(fileMagic)) {
+            return XLS;
+        }
+        if (FileMagic.OOXML.equals(fileMagic)) {
+            return XLSX;
+        }
+        if (FileMagic.UNKNOWN.equals(fileMagic) && fileName != null) {
+            String name = fileName.toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv") || name.endsWith(".tsv")) {
+                return CSV;
+            }
+        }
+        throw new FileNotSupportedException("The file is not xls or xlsx or csv, please re-select.");
+    }
 }
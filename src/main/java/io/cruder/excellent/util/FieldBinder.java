@@ -0,0 +1,249 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import io.cruder.excellent.ExcelColumn;
+import lombok.Getter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * FieldBinder: Setter of one bean field, composed with the typed parser of its parameter.
+ *
+ * @author cruder
+ * @since 2020-03-18
+ */
+final class FieldBinder {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * Type of composed setter: (bean, cell text) -> void.
+     */
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, String.class);
+
+    /**
+     * Type of composed raw setter: (bean, raw number) -> void.
+     */
+    private static final MethodType NUMBER_SETTER_TYPE = MethodType.methodType(void.class, Object.class, double.class);
+
+    /**
+     * Field title in excel.
+     */
+    @Getter
+    private final String title;
+
+    /**
+     * Composed setter.
+     */
+    private final MethodHandle setter;
+
+    /**
+     * Composed raw setter, null if field is not numeric.
+     */
+    private final MethodHandle numberSetter;
+
+    /**
+     * Skip setter invocation when cell is empty.
+     */
+    private final boolean skipEmpty;
+
+    private FieldBinder(String title, MethodHandle setter, MethodHandle numberSetter, boolean skipEmpty) {
+        this.title = title;
+        this.setter = setter;
+        this.numberSetter = numberSetter;
+        this.skipEmpty = skipEmpty;
+    }
+
+    /**
+     * @return true if field can be filled from raw number.
+     */
+    boolean isNumeric() {
+        return numberSetter != null;
+    }
+
+    /**
+     * Fill cell value into bean field.
+     *
+     * @param bean bean
+     * @param val  cell value, not null
+     * @throws Throwable exception from parser or setter
+     */
+    void bind(Object bean, String val) throws Throwable {
+        if (skipEmpty && val.isEmpty()) {
+            return;
+        }
+        setter.invokeExact(bean, val);
+    }
+
+    /**
+     * Fill raw number into bean field.
+     *
+     * @param bean bean
+     * @param val  raw number
+     * @throws Throwable exception from setter
+     */
+    void bind(Object bean, double val) throws Throwable {
+        numberSetter.invokeExact(bean, val);
+    }
+
+    /**
+     * Resolve binders of all fields which can be filled from excel.
+     *
+     * @param clazz bean class
+     * @return field binders
+     */
+    static List<FieldBinder> resolve(Class<?> clazz) {
+        return Stream.of(clazz.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .map(field -> resolve(field, clazz))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Resolve bean factory of class.
+     *
+     * @param clazz bean class
+     * @return method handle of type () -> Object
+     */
+    static MethodHandle resolveFactory(Class<?> clazz) {
+        try {
+            Constructor<?> constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return LOOKUP.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException(
+                    String.format("Class %s has no accessible default constructor.", clazz.getName()), e);
+        }
+    }
+
+    private static FieldBinder resolve(Field field, Class<?> clazz) {
+        String title = field.getName();
+        String format = null;
+        if (field.isAnnotationPresent(ExcelColumn.class)) {
+            ExcelColumn column = field.getAnnotation(ExcelColumn.class);
+            if (!column.title().isEmpty()) {
+                title = column.title();
+            }
+            if (!column.format().isEmpty()) {
+                format = column.format();
+            }
+        }
+
+        Method method = Reflects.resolveSetter(field, clazz);
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length != 1) {
+            // setter should only have one parameter
+            throw new RuntimeException(String.format("Method %s is not a setter.", method.getName()));
+        }
+        Class<?> parameterType = parameterTypes[0];
+
+        try {
+            method.setAccessible(true);
+            MethodHandle setter = LOOKUP.unreflect(method);
+            if (parameterType.equals(String.class) || parameterType.equals(Object.class)) {
+                return new FieldBinder(title, setter.asType(SETTER_TYPE), null, false);
+            }
+            if (Number.class.isAssignableFrom(parameterType)) {
+                MethodHandle parser = LOOKUP.findConstructor(parameterType,
+                        MethodType.methodType(void.class, String.class));
+                return new FieldBinder(title, compose(setter, parser), composeNumber(setter, parameterType),
+                        !parameterType.equals(Byte.class));
+            }
+            if (parameterType.isPrimitive()) {
+                if (parameterType.equals(Void.TYPE)) {
+                    throw new RuntimeException("Field's type of target class must not be Void.class");
+                }
+                if (parameterType.equals(Character.TYPE)) {
+                    throw new RuntimeException("Please use String to replace field's type Character.class");
+                }
+                if (parameterType.equals(Boolean.TYPE)) {
+                    return null;
+                }
+                String name = "parse" + Character.toUpperCase(parameterType.getName().charAt(0))
+                        + parameterType.getName().substring(1);
+                MethodHandle parser = LOOKUP.findStatic(CellParsers.class, name,
+                        MethodType.methodType(parameterType, String.class));
+                return new FieldBinder(title, compose(setter, parser), composeNumber(setter, parameterType),
+                        !parameterType.equals(Byte.TYPE));
+            }
+            if (parameterType.equals(Date.class)
+                    || parameterType.equals(LocalDateTime.class)
+                    || parameterType.equals(LocalDate.class)) {
+                DateTimeFormatter formatter = ExcelDates.formatter(
+                        format == null ? Constant.DEFAULT_DATETIME_FORMAT : format);
+                MethodHandle parser = LOOKUP.findStatic(CellParsers.class, "parse" + parameterType.getSimpleName(),
+                        MethodType.methodType(parameterType, String.class, DateTimeFormatter.class));
+                MethodHandle numberParser = LOOKUP.findStatic(CellParsers.class, "to" + parameterType.getSimpleName(),
+                        MethodType.methodType(parameterType, double.class));
+                return new FieldBinder(title, compose(setter, MethodHandles.insertArguments(parser, 1, formatter)),
+                        MethodHandles.filterArguments(setter, 1, numberParser).asType(NUMBER_SETTER_TYPE), false);
+            }
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException(String.format("Field [%s] of type %s can not be parsed from cell.",
+                    field.getName(), parameterType.getName()), e);
+        }
+        // Field types other than above are not filled.
+        return null;
+    }
+
+    private static MethodHandle compose(MethodHandle setter, MethodHandle parser) {
+        return MethodHandles.filterArguments(setter, 1, parser).asType(SETTER_TYPE);
+    }
+
+    /**
+     * Compose setter of numeric type with conversion from raw number.
+     *
+     * @return composed raw setter, null if type can not be converted from double.
+     */
+    private static MethodHandle composeNumber(MethodHandle setter, Class<?> numberType)
+            throws NoSuchMethodException, IllegalAccessException {
+        MethodHandle converter;
+        if (numberType.equals(BigDecimal.class)) {
+            converter = LOOKUP.findStatic(BigDecimal.class, "valueOf",
+                    MethodType.methodType(BigDecimal.class, double.class));
+        } else {
+            Class<?> primitive = MethodType.methodType(numberType).unwrap().returnType();
+            if (!primitive.isPrimitive()) {
+                return null;
+            }
+            if (primitive.equals(Double.TYPE)) {
+                converter = MethodHandles.identity(double.class);
+            } else {
+                converter = LOOKUP.findStatic(CellParsers.class, primitive.getName() + "Value",
+                        MethodType.methodType(primitive, double.class));
+            }
+            converter = converter.asType(MethodType.methodType(numberType, double.class));
+        }
+        return MethodHandles.filterArguments(setter, 1, converter).asType(NUMBER_SETTER_TYPE);
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import io.cruder.excellent.ExcelColumn;
+import lombok.Getter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * FieldEncoder: Getter of one bean field, typed so that its value is written as native cell without going through
+ * text, the write side of {@link FieldBinder}.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+final class FieldEncoder {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * Order of field without annotation, the default of {@link ExcelColumn#order()}.
+     */
+    private static final int DEFAULT_ORDER = 1;
+
+    /**
+     * Kinds of field, primitive ones are got unboxed.
+     */
+    private static final int PRIMITIVE_LONG = 0;
+    private static final int PRIMITIVE_DOUBLE = 1;
+    private static final int PRIMITIVE_FLOAT = 2;
+    private static final int PRIMITIVE_BOOLEAN = 3;
+    private static final int NUMBER = 4;
+    private static final int BOOLEAN = 5;
+    private static final int LOCAL_DATE_TIME = 6;
+    private static final int LOCAL_DATE = 7;
+    private static final int DATE = 8;
+    private static final int TEXT = 9;
+    private static final int OTHER = 10;
+
+    /**
+     * Field title in excel.
+     */
+    @Getter
+    private final String title;
+
+    /**
+     * Column order in excel.
+     */
+    @Getter
+    private final int order;
+
+    private final int kind;
+
+    /**
+     * Getter of type (bean) -> double, float or long for primitive numbers, (bean) -> boolean for primitive booleans
+     * and (bean) -> Object for others.
+     */
+    private final MethodHandle getter;
+
+    /**
+     * Date pattern of date fields.
+     */
+    private final String pattern;
+
+    private FieldEncoder(String title, int order, int kind, MethodHandle getter, String pattern) {
+        this.title = title;
+        this.order = order;
+        this.kind = kind;
+        this.getter = getter;
+        this.pattern = pattern;
+    }
+
+    /**
+     * Write field of bean as next cell.
+     *
+     * @param bean  bean
+     * @param cells cells of row
+     * @throws Throwable exception from getter
+     */
+    void encode(Object bean, CellSink cells) throws Throwable {
+        if (kind == PRIMITIVE_LONG) {
+            cells.number((long) getter.invokeExact(bean));
+            return;
+        }
+        if (kind == PRIMITIVE_DOUBLE) {
+            cells.number((double) getter.invokeExact(bean));
+            return;
+        }
+        if (kind == PRIMITIVE_FLOAT) {
+            cells.number((float) getter.invokeExact(bean));
+            return;
+        }
+        if (kind == PRIMITIVE_BOOLEAN) {
+            cells.bool((boolean) getter.invokeExact(bean));
+            return;
+        }
+        Object value = (Object) getter.invokeExact(bean);
+        if (value == null) {
+            cells.blank();
+            return;
+        }
+        switch (kind) {
+            case NUMBER:
+                cells.number((Number) value);
+                break;
+            case BOOLEAN:
+                cells.bool((Boolean) value);
+                break;
+            case LOCAL_DATE_TIME:
+                cells.date((LocalDateTime) value, pattern);
+                break;
+            case LOCAL_DATE:
+                cells.date(((LocalDate) value).atStartOfDay(), pattern);
+                break;
+            case DATE:
+                cells.date(ExcelDates.toLocalDateTime((Date) value), pattern);
+                break;
+            case TEXT:
+                cells.text((String) value);
+                break;
+            default:
+                cells.value(value);
+                break;
+        }
+    }
+
+    /**
+     * Resolve encoder of field.
+     *
+     * @param field bean field
+     * @param clazz bean class
+     * @return field encoder
+     */
+    static FieldEncoder resolve(Field field, Class<?> clazz) {
+        String title = field.getName();
+        int order = DEFAULT_ORDER;
+        String format = null;
+        if (field.isAnnotationPresent(ExcelColumn.class)) {
+            ExcelColumn column = field.getAnnotation(ExcelColumn.class);
+            if (!column.title().isEmpty()) {
+                title = column.title();
+            }
+            if (!column.format().isEmpty()) {
+                format = column.format();
+            }
+            order = column.order();
+        }
+
+        Method method = Reflects.resolveGetter(field, clazz);
+        Class<?> type = method.getReturnType();
+        MethodHandle getter;
+        try {
+            method.setAccessible(true);
+            getter = LOOKUP.unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException(String.format("Getter of field [%s] is not accessible.",
+                    field.getName()), e);
+        }
+        if (type == Double.TYPE) {
+            return new FieldEncoder(title, order, PRIMITIVE_DOUBLE,
+                    getter.asType(MethodType.methodType(double.class, Object.class)), null);
+        }
+        if (type == Float.TYPE) {
+            return new FieldEncoder(title, order, PRIMITIVE_FLOAT,
+                    getter.asType(MethodType.methodType(float.class, Object.class)), null);
+        }
+        if (type.isPrimitive() && type != Boolean.TYPE && type != Character.TYPE) {
+            // Integral primitives are widened to long, which keeps them exact.
+            return new FieldEncoder(title, order, PRIMITIVE_LONG,
+                    getter.asType(MethodType.methodType(long.class, Object.class)), null);
+        }
+        if (type == Boolean.TYPE) {
+            return new FieldEncoder(title, order, PRIMITIVE_BOOLEAN,
+                    getter.asType(MethodType.methodType(boolean.class, Object.class)), null);
+        }
+        int kind;
+        String pattern = null;
+        if (Number.class.isAssignableFrom(type)) {
+            kind = NUMBER;
+        } else if (type == Boolean.class) {
+            kind = BOOLEAN;
+        } else if (type == LocalDateTime.class) {
+            kind = LOCAL_DATE_TIME;
+            pattern = format == null ? Constant.DEFAULT_DATETIME_FORMAT : format;
+        } else if (type == LocalDate.class) {
+            kind = LOCAL_DATE;
+            pattern = format == null ? Constant.DEFAULT_DATE_FORMAT : format;
+        } else if (type == Date.class) {
+            kind = DATE;
+            pattern = format == null ? Constant.DEFAULT_DATETIME_FORMAT : format;
+        } else if (type == String.class) {
+            kind = TEXT;
+        } else {
+            kind = OTHER;
+        }
+        return new FieldEncoder(title, order, kind, getter.asType(MethodType.methodType(Object.class, Object.class)),
+                pattern);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * GlobalsCache: Cache of workbook globals shared by readers of workbooks filled in from the same templates, keyed by
+ * content digest of their styles, so that repeated reads skip parsing styles and reuse compiled formats.
+ * <p>Readers use it only if {@link io.cruder.excellent.Reader#cacheGlobals()} is set. Least recently used entries
+ * are evicted beyond capacity.</p>
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+@UtilityClass
+public class GlobalsCache {
+
+    /**
+     * Default count of cached workbook globals.
+     */
+    public static final int DEFAULT_CAPACITY = 32;
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private static int capacity = DEFAULT_CAPACITY;
+
+    /**
+     * Style formats by digest, in access order, guarded by itself.
+     */
+    private static final Map<ByteBuffer, StyleFormats> STYLES = new LinkedHashMap<ByteBuffer, StyleFormats>(16,
+            0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ByteBuffer, StyleFormats> eldest) {
+            return size() > capacity;
+        }
+    };
+
+    /**
+     * @return new digest of content
+     */
+    public static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param digest digest of styles content
+     * @return cached style formats, null if not cached
+     */
+    public static StyleFormats getStyles(byte[] digest) {
+        synchronized (STYLES) {
+            return STYLES.get(ByteBuffer.wrap(digest));
+        }
+    }
+
+    /**
+     * Cache style formats, unless formats of the same digest are cached by another reader meanwhile.
+     *
+     * @param digest  digest of styles content
+     * @param formats style formats
+     * @return style formats cached
+     */
+    public static StyleFormats putStyles(byte[] digest, StyleFormats formats) {
+        synchronized (STYLES) {
+            StyleFormats cached = STYLES.putIfAbsent(ByteBuffer.wrap(digest.clone()), formats);
+            return cached == null ? formats : cached;
+        }
+    }
+
+    /**
+     * Set count of cached workbook globals, evicting least recently used ones beyond it.
+     *
+     * @param entries count of entries, 0 disables cache
+     */
+    public static void setCapacity(int entries) {
+        if (entries < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative.");
+        }
+        synchronized (STYLES) {
+            capacity = entries;
+            STYLES.entrySet().removeIf(entry -> STYLES.size() > capacity);
+        }
+    }
+
+    /**
+     * Evict all cached workbook globals.
+     */
+    public static void clear() {
+        synchronized (STYLES) {
+            STYLES.clear();
+        }
+    }
+}
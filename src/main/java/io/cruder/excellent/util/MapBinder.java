@@ -0,0 +1,77 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * MapBinder: Row binder which puts row cells into a map keyed by header, in header order.
+ *
+ * @author cruder
+ * @since 2020-03-18
+ */
+final class MapBinder implements RowBinder<Map<String, String>> {
+
+    /**
+     * Header names.
+     */
+    private final String[] headers;
+
+    /**
+     * Columns of non-null headers, null if no header is null.
+     */
+    private final int[] columns;
+
+    MapBinder(List<String> headers) {
+        Set<String> distinct = new HashSet<>(headers.size() * 2);
+        List<Integer> named = new ArrayList<>(headers.size());
+        for (int i = 0; i < headers.size(); i++) {
+            String header = headers.get(i);
+            // Null header is a column not read.
+            if (header == null) {
+                continue;
+            }
+            if (!distinct.add(header)) {
+                throw new IllegalStateException(String.format("Duplicate header [%s].", header));
+            }
+            named.add(i);
+        }
+        this.headers = headers.toArray(new String[0]);
+        this.columns = named.size() == headers.size() ? null : named.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Override
+    public Map<String, String> bind(RowView row) {
+        Map<String, String> map = new LinkedHashMap<>(headers.length * 4 / 3 + 1);
+        int size = row.size();
+        for (int i = 0; i < headers.length; i++) {
+            if (headers[i] != null) {
+                map.put(headers[i], i < size ? row.getString(i) : Constant.EMPTY);
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public int[] columns() {
+        return columns == null ? null : columns.clone();
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MapEncoder: Row encoder which writes values of map by header, in header order.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+final class MapEncoder implements RowEncoder<Map<String, ?>> {
+
+    private final String[] headers;
+
+    MapEncoder(List<String> headers) {
+        this.headers = headers.toArray(new String[0]);
+    }
+
+    @Override
+    public List<String> titles() {
+        List<String> titles = new ArrayList<>(headers.length);
+        Collections.addAll(titles, headers);
+        return titles;
+    }
+
+    @Override
+    public void encode(Map<String, ?> row, CellSink cells) {
+        for (String header : headers) {
+            cells.value(row.get(header));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Numbers: Number parsing directly from character buffers.
+ *
+ * @author cruder
+ * @since 2020-03-20
+ */
+@UtilityClass
+public class Numbers {
+
+    /**
+     * Largest mantissa exactly representable by double.
+     */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    /**
+     * Exactly representable powers of ten.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Check whether chars is a plain decimal number, like -12.5 or 1.2E-3.
+     *
+     * @param chars  chars
+     * @param offset start offset
+     * @param length length
+     * @return true if number
+     */
+    public static boolean isNumber(char[] chars, int offset, int length) {
+        int i = offset;
+        int end = offset + length;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            i++;
+        }
+        int digits = 0;
+        while (i < end && chars[i] >= '0' && chars[i] <= '9') {
+            i++;
+            digits++;
+        }
+        if (i < end && chars[i] == '.') {
+            i++;
+            while (i < end && chars[i] >= '0' && chars[i] <= '9') {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < end && (chars[i] == 'e' || chars[i] == 'E')) {
+            i++;
+            if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+                i++;
+            }
+            int exponentDigits = 0;
+            while (i < end && chars[i] >= '0' && chars[i] <= '9') {
+                i++;
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                return false;
+            }
+        }
+        return i == end;
+    }
+
+    /**
+     * Parse double from chars, which should be checked by {@link Numbers#isNumber(char[], int, int)}.
+     * <p>Values with at most 15 significant digits and small exponent are computed exactly without allocation,
+     * others fall back to {@link Double#parseDouble(String)}.</p>
+     *
+     * @param chars  chars
+     * @param offset start offset
+     * @param length length
+     * @return double value
+     */
+    public static double parseDouble(char[] chars, int offset, int length) {
+        int i = offset;
+        int end = offset + length;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significant = 0;
+        int scale = 0;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c == '.') {
+                fraction = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                break;
+            }
+            if (mantissa != 0 || c != '0') {
+                significant++;
+            }
+            if (significant > 15) {
+                return Double.parseDouble(new String(chars, offset, length));
+            }
+            mantissa = mantissa * 10 + (c - '0');
+            if (fraction) {
+                scale++;
+            }
+        }
+        if (i < end) {
+            // Exponent or illegal chars.
+            return Double.parseDouble(new String(chars, offset, length));
+        }
+        double value = mantissa;
+        if (scale > 0) {
+            if (scale >= POWERS_OF_TEN.length || mantissa >= MAX_EXACT_MANTISSA) {
+                return Double.parseDouble(new String(chars, offset, length));
+            }
+            value = value / POWERS_OF_TEN[scale];
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parse non-negative int from chars.
+     *
+     * @param chars  chars
+     * @param offset start offset
+     * @param length length
+     * @return int value
+     */
+    public static int parseInt(char[] chars, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char c = chars[i];
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException(new String(chars, offset, length));
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
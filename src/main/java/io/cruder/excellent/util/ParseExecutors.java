@@ -0,0 +1,92 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ParseExecutors: Executors of parse tasks, which block until their sheets are parsed or reading is stopped.
+ * <p>Parse tasks must never wait in a queue behind each other or run on the reading thread, since their reader
+ * waits for them, so the default executor starts a thread for each task which finds no idle one.</p>
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+@Slf4j
+@UtilityClass
+public class ParseExecutors {
+
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    /**
+     * Default executor, a cached pool of daemon threads which end after idle for a minute, so nothing has to shut
+     * it down. It is unbounded: threads are as many as parse tasks of open readers, one per reader or one per
+     * processor with parallel sheets, since a queued task would leave its reader waiting for rows, which never come
+     * if the same thread reads the reader holding the threads. A bounded executor can be given per reader.
+     */
+    public static final ExecutorService DEFAULT = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+            KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<>(), daemonThreads("excel-lent-parser-"));
+
+    /**
+     * Executor starting a virtual thread per task, on runtime which supports them.
+     *
+     * @return executor of virtual threads, {@link ParseExecutors#DEFAULT} if not supported
+     */
+    public static Executor virtualThreads() {
+        return VirtualThreads.EXECUTOR;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * VirtualThreads: Holder of virtual thread executor, resolved by reflection at first use, as runtime may be
+     * older than virtual threads.
+     *
+     * @author cruder
+     * @since 2020-03-26
+     */
+    private static final class VirtualThreads {
+
+        private static final Executor EXECUTOR = resolve();
+
+        private static Executor resolve() {
+            try {
+                return (Executor) java.util.concurrent.Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                log.debug("Virtual threads are not supported, parse on default executor.");
+                return DEFAULT;
+            }
+        }
+    }
+}
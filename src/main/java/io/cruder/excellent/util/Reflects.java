@@ -37,6 +37,12 @@ public class Reflects {
      */
     private static final String SET_PREFIX = "set";
 
+    /**
+     * Common getter name prefix strings.
+     */
+    private static final String GET_PREFIX = "get";
+    private static final String IS_PREFIX = "is";
+
     /**
      * Resolve generic type
      *
@@ -82,14 +88,36 @@ public class Reflects {
      */
     public static Method resolveSetter(Field field, Class clz) {
         String fieldName = field.getName();
-        char[] chars = fieldName.toCharArray();
-        if (chars[0] <= Constant.z && chars[0] >= Constant.a) {
-            chars[0] = (char) (chars[0] + Constant.A - Constant.a);
-        }
-        String setterName = SET_PREFIX.concat(String.valueOf(chars));
+        String setterName = SET_PREFIX.concat(capitalize(fieldName));
         return Stream.of(clz.getDeclaredMethods())
                 .filter(method -> method.getName().equals(setterName))
                 .findAny()
                 .orElseThrow(() -> new NoSuchMethodError(String.format("Field [%s] has no setter.", fieldName)));
     }
+
+    /**
+     * Resolve field getter in class, boolean field may be got by "is" prefixed getter.
+     *
+     * @param field class field info
+     * @param clz   target class.
+     * @return field getter.
+     */
+    public static Method resolveGetter(Field field, Class clz) {
+        String fieldName = field.getName();
+        String getterName = GET_PREFIX.concat(capitalize(fieldName));
+        String isName = field.getType().equals(Boolean.TYPE) ? IS_PREFIX.concat(capitalize(fieldName)) : getterName;
+        return Stream.of(clz.getDeclaredMethods())
+                .filter(method -> method.getParameterCount() == 0)
+                .filter(method -> method.getName().equals(getterName) || method.getName().equals(isName))
+                .findAny()
+                .orElseThrow(() -> new NoSuchMethodError(String.format("Field [%s] has no getter.", fieldName)));
+    }
+
+    private static String capitalize(String fieldName) {
+        char[] chars = fieldName.toCharArray();
+        if (chars[0] <= Constant.z && chars[0] >= Constant.a) {
+            chars[0] = (char) (chars[0] + Constant.A - Constant.a);
+        }
+        return String.valueOf(chars);
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import java.util.function.IntFunction;
+
+/**
+ * RowBatch: Fixed count of recycled rows, filled by parse thread and handed over to reader at once.
+ *
+ * @author cruder
+ * @since 2020-03-23
+ */
+public final class RowBatch {
+
+    private final RowBuffer[] rows;
+    private int size;
+
+    /**
+     * Create batch whose rows are filled by {@link RowBuffer#copyFrom(RowView)}.
+     *
+     * @param capacity rows of batch
+     */
+    public RowBatch(int capacity) {
+        this(capacity, null, null);
+    }
+
+    public RowBatch(int capacity, CellFormatter formatter, IntFunction<String> sharedStrings) {
+        rows = new RowBuffer[capacity];
+        for (int i = 0; i < capacity; i++) {
+            rows[i] = new RowBuffer(formatter, sharedStrings);
+        }
+    }
+
+    /**
+     * Row buffer to be filled next, cleared.
+     *
+     * @return row buffer after the committed ones
+     */
+    public RowBuffer next() {
+        RowBuffer row = rows[size];
+        row.clear();
+        return row;
+    }
+
+    /**
+     * Commit the row returned by {@link #next()}.
+     *
+     * @return whether the batch is full now
+     */
+    public boolean commit() {
+        return ++size == rows.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public RowBuffer get(int index) {
+        return rows[index];
+    }
+
+    /**
+     * Drop all committed rows for reuse.
+     */
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * RowBinder: Row data binder compiled for one (class, header layout) pair.
+ *
+ * @author cruder
+ * @since 2020-03-18
+ */
+@FunctionalInterface
+public interface RowBinder<T> {
+
+    /**
+     * Bind row data to a new object.
+     *
+     * @param row row cells
+     * @return class object
+     */
+    T bind(RowView row);
+
+    /**
+     * Columns read by binder, so that readers can leave cells of other columns blank without decoding them.
+     *
+     * @return column indexes, null if any column may be read
+     */
+    default int[] columns() {
+        return null;
+    }
+
+    /**
+     * Titles which binder maps but headers do not have, checked by readers of
+     * {@link MissingColumnPolicy#FAIL}.
+     *
+     * @return titles without column
+     */
+    default List<String> missing() {
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import io.cruder.excellent.pojo.Sheet;
+import org.apache.poi.ss.usermodel.CellType;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * RowBuffer: Reusable row of tagged cells.
+ * <p>Numeric cells keep raw value with their style and shared strings keep their index, both are turned into
+ * text only when {@link RowBuffer#getString(int)} asks for it.</p>
+ *
+ * @author cruder
+ * @since 2020-03-20
+ */
+public final class RowBuffer implements RowView {
+
+    private static final byte BLANK = 0;
+    private static final byte TEXT = 1;
+    private static final byte SHARED = 2;
+    private static final byte NUMBER = 3;
+    private static final byte BOOLEAN = 4;
+    private static final byte ERROR = 5;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Formatter of numeric cells.
+     */
+    private CellFormatter formatter;
+
+    /**
+     * Shared strings lookup.
+     */
+    private IntFunction<String> sharedStrings;
+
+    private Sheet sheet;
+    private int rowNum = -1;
+    private int size;
+    private byte[] tags;
+    private double[] numbers;
+    /**
+     * Style of numeric cell, or index of shared string.
+     */
+    private int[] indexes;
+    private String[] texts;
+
+    public RowBuffer(CellFormatter formatter, IntFunction<String> sharedStrings) {
+        this(formatter, sharedStrings, INITIAL_CAPACITY);
+    }
+
+    private RowBuffer(CellFormatter formatter, IntFunction<String> sharedStrings, int capacity) {
+        this.formatter = formatter;
+        this.sharedStrings = sharedStrings;
+        this.tags = new byte[capacity];
+        this.numbers = new double[capacity];
+        this.indexes = new int[capacity];
+        this.texts = new String[capacity];
+    }
+
+    /**
+     * Empty row for reuse.
+     */
+    public void clear() {
+        size = 0;
+        rowNum = -1;
+        sheet = null;
+    }
+
+    /**
+     * @param sheet sheet which row belongs to
+     */
+    public void setSheet(Sheet sheet) {
+        this.sheet = sheet;
+    }
+
+    /**
+     * @param rowNum row number in sheet, starting from 0
+     */
+    public void setRowNum(int rowNum) {
+        this.rowNum = rowNum;
+    }
+
+    public void addBlank() {
+        add(BLANK, 0, 0, Constant.EMPTY);
+    }
+
+    /**
+     * Fill blank cells up to given width at once, rows wider already are left as is. Blank cells are told by their
+     * tag alone, so only tags are filled.
+     *
+     * @param width width of row
+     */
+    public void padTo(int width) {
+        if (width <= size) {
+            return;
+        }
+        ensureCapacity(width);
+        Arrays.fill(tags, size, width, BLANK);
+        size = width;
+    }
+
+    public void addText(String text) {
+        add(TEXT, 0, 0, text);
+    }
+
+    /**
+     * @param index index of shared string
+     */
+    public void addShared(int index) {
+        add(SHARED, 0, index, null);
+    }
+
+    /**
+     * @param value raw value
+     * @param style style index for formatting
+     */
+    public void addNumber(double value, int style) {
+        add(NUMBER, value, style, null);
+    }
+
+    /**
+     * @param value raw value
+     * @param text  text of value, which is not formatted
+     */
+    public void addNumber(double value, String text) {
+        add(NUMBER, value, -1, text);
+    }
+
+    public void addBoolean(boolean value) {
+        add(BOOLEAN, value ? 1 : 0, 0, value ? "TRUE" : "FALSE");
+    }
+
+    public void addError(String text) {
+        add(ERROR, 0, 0, text);
+    }
+
+    private void add(byte tag, double number, int index, String text) {
+        if (size == tags.length) {
+            ensureCapacity(size + 1);
+        }
+        tags[size] = tag;
+        numbers[size] = number;
+        indexes[size] = index;
+        texts[size] = text;
+        size++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > tags.length) {
+            int grown = Math.max(tags.length << 1, capacity);
+            tags = Arrays.copyOf(tags, grown);
+            numbers = Arrays.copyOf(numbers, grown);
+            indexes = Arrays.copyOf(indexes, grown);
+            texts = Arrays.copyOf(texts, grown);
+        }
+    }
+
+    /**
+     * Turn shared strings and numeric cells into text now, so that reading text later does not use formatter or
+     * shared strings, which may belong to another thread.
+     */
+    public void resolve() {
+        for (int i = 0; i < size; i++) {
+            if (texts[i] == null) {
+                texts[i] = getString(i);
+            }
+        }
+    }
+
+    /**
+     * Copy cells of source row into this one, which reads text the same way as source row.
+     *
+     * @param source source row
+     */
+    public void copyFrom(RowView source) {
+        clear();
+        rowNum = source.getRowNum();
+        sheet = source.getSheet();
+        if (!(source instanceof RowBuffer)) {
+            for (int i = 0; i < source.size(); i++) {
+                addText(source.getString(i));
+            }
+            return;
+        }
+        RowBuffer row = (RowBuffer) source;
+        formatter = row.formatter;
+        sharedStrings = row.sharedStrings;
+        if (tags.length < row.size) {
+            tags = new byte[row.size];
+            numbers = new double[row.size];
+            indexes = new int[row.size];
+            texts = new String[row.size];
+        }
+        System.arraycopy(row.tags, 0, tags, 0, row.size);
+        System.arraycopy(row.numbers, 0, numbers, 0, row.size);
+        System.arraycopy(row.indexes, 0, indexes, 0, row.size);
+        System.arraycopy(row.texts, 0, texts, 0, row.size);
+        size = row.size;
+    }
+
+    /**
+     * @return detached copy of this row.
+     */
+    public RowBuffer copy() {
+        RowBuffer copy = new RowBuffer(formatter, sharedStrings, Math.max(size, 1));
+        System.arraycopy(tags, 0, copy.tags, 0, size);
+        System.arraycopy(numbers, 0, copy.numbers, 0, size);
+        System.arraycopy(indexes, 0, copy.indexes, 0, size);
+        System.arraycopy(texts, 0, copy.texts, 0, size);
+        copy.size = size;
+        copy.rowNum = rowNum;
+        copy.sheet = sheet;
+        return copy;
+    }
+
+    @Override
+    public int getRowNum() {
+        return rowNum;
+    }
+
+    @Override
+    public Sheet getSheet() {
+        return sheet;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public CellType getCellType(int column) {
+        if (column >= size) {
+            return CellType.BLANK;
+        }
+        switch (tags[column]) {
+            case TEXT:
+            case SHARED:
+                return CellType.STRING;
+            case NUMBER:
+                return CellType.NUMERIC;
+            case BOOLEAN:
+                return CellType.BOOLEAN;
+            case ERROR:
+                return CellType.ERROR;
+            default:
+                return CellType.BLANK;
+        }
+    }
+
+    @Override
+    public String getString(int column) {
+        if (column >= size) {
+            return null;
+        }
+        if (tags[column] == BLANK) {
+            return Constant.EMPTY;
+        }
+        if (texts[column] != null) {
+            return texts[column];
+        }
+        switch (tags[column]) {
+            case SHARED:
+                return sharedStrings.apply(indexes[column]);
+            case NUMBER:
+                return formatter.format(numbers[column], indexes[column]);
+            default:
+                return texts[column];
+        }
+    }
+
+    @Override
+    public double getNumber(int column) {
+        if (column >= size) {
+            return Double.NaN;
+        }
+        return tags[column] == BLANK ? 0 : numbers[column];
+    }
+}
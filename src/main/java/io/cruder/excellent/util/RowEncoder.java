@@ -0,0 +1,57 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RowEncoder: Row object encoder compiled for one class, the write side of {@link RowBinder}.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public interface RowEncoder<T> {
+
+    /**
+     * @return titles of columns, in column order
+     */
+    List<String> titles();
+
+    /**
+     * Encode row object into cells.
+     *
+     * @param row   row object
+     * @param cells cells of row, written in column order
+     * @throws io.cruder.excellent.exception.ExcelWriteException if value of row can not be taken
+     */
+    void encode(T row, CellSink cells);
+
+    /**
+     * Compile encoder of class, columns of beans come from their fields and columns of maps from headers.
+     *
+     * @param clazz   bean class, null for rows of map
+     * @param headers keys of map rows in column order, ignored by beans
+     * @return row encoder
+     */
+    @SuppressWarnings("unchecked")
+    static <T> RowEncoder<T> compile(Class<T> clazz, List<String> headers) {
+        if (clazz == null || Map.class.isAssignableFrom(clazz)) {
+            return (RowEncoder<T>) new MapEncoder(headers);
+        }
+        return BeanEncoder.of(clazz);
+    }
+}
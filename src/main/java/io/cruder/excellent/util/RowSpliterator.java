@@ -0,0 +1,142 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * RowSpliterator: Spliterator of reader rows, which splits off batches of rows read ahead.
+ * <p>Rows are read one by one from source, so traversal and splits must not run at the same time, as parallel
+ * streams do. Split batches grow by {@code unit} rows each time, like
+ * {@link Spliterators#spliteratorUnknownSize(java.util.Iterator, int)}, so work starts early and later batches are
+ * large enough to be worth forking.</p>
+ * <p>Size is estimated by sheet dimensions, which is only an upper bound since blank rows are absent, so it is
+ * never reported as {@link Spliterator#SIZED}.</p>
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public final class RowSpliterator<T> implements Spliterator<T> {
+
+    private static final int MAX_BATCH = 1 << 25;
+
+    /**
+     * Source of rows, null if there is no more row.
+     */
+    private final Supplier<T> source;
+
+    /**
+     * Estimator of rows, invoked at most once.
+     */
+    private final LongSupplier estimator;
+    private final int unit;
+    private final int characteristics;
+
+    private long estimate = -1L;
+    private int batch;
+    private boolean drained;
+
+    /**
+     * Create spliterator.
+     *
+     * @param source    source of rows
+     * @param estimator estimator of rows, {@link Long#MAX_VALUE} if unknown
+     * @param unit      rows which split batch grows by
+     * @param ordered   whether rows have encounter order
+     */
+    public RowSpliterator(Supplier<T> source, LongSupplier estimator, int unit, boolean ordered) {
+        this.source = source;
+        this.estimator = estimator;
+        this.unit = unit;
+        this.characteristics = ordered ? ORDERED | NONNULL : NONNULL;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        T row = read();
+        if (row == null) {
+            return false;
+        }
+        action.accept(row);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        T row;
+        while ((row = read()) != null) {
+            action.accept(row);
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (drained) {
+            return null;
+        }
+        int n = Math.min(batch + unit, MAX_BATCH);
+        Object[] rows = new Object[n];
+        int i = 0;
+        T row;
+        while (i < n && (row = read()) != null) {
+            rows[i++] = row;
+        }
+        if (i == 0) {
+            return null;
+        }
+        batch = i;
+        return Spliterators.spliterator(rows, 0, i, characteristics);
+    }
+
+    @Override
+    public long estimateSize() {
+        if (drained) {
+            return 0L;
+        }
+        if (estimate < 0) {
+            estimate = estimator.getAsLong();
+        }
+        return estimate;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+
+    /**
+     * @return next row, null if there is no more row
+     */
+    private T read() {
+        if (drained) {
+            return null;
+        }
+        T row = source.get();
+        if (row == null) {
+            drained = true;
+        } else if (estimate > 0 && estimate != Long.MAX_VALUE) {
+            estimate--;
+        }
+        return row;
+    }
+}
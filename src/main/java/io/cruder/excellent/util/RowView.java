@@ -0,0 +1,126 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import io.cruder.excellent.pojo.Sheet;
+import org.apache.poi.ss.usermodel.CellType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RowView: Read only view of one row's cells.
+ *
+ * @author cruder
+ * @since 2020-03-20
+ */
+public interface RowView {
+
+    /**
+     * @return row number in sheet, starting from 0, -1 if unknown.
+     */
+    int getRowNum();
+
+    /**
+     * @return sheet which row belongs to, null if unknown.
+     */
+    Sheet getSheet();
+
+    /**
+     * @return number of cells in row.
+     */
+    int size();
+
+    /**
+     * Cell type, columns out of row are {@link CellType#BLANK}.
+     *
+     * @param column column index, starting from 0
+     * @return cell type
+     */
+    CellType getCellType(int column);
+
+    /**
+     * Formatted cell text.
+     *
+     * @param column column index, starting from 0
+     * @return cell text, null if column is out of row.
+     */
+    String getString(int column);
+
+    /**
+     * Raw numeric value, only meaningful when cell type is {@link CellType#NUMERIC}.
+     *
+     * @param column column index, starting from 0
+     * @return raw value
+     */
+    double getNumber(int column);
+
+    /**
+     * @return formatted text of all cells.
+     */
+    default List<String> toList() {
+        List<String> list = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            list.add(getString(i));
+        }
+        return list;
+    }
+
+    /**
+     * View text cells as a row.
+     *
+     * @param rowCells value of each row cell
+     * @return row view
+     */
+    static RowView of(List<String> rowCells) {
+        return new RowView() {
+            @Override
+            public int getRowNum() {
+                return -1;
+            }
+
+            @Override
+            public Sheet getSheet() {
+                return null;
+            }
+
+            @Override
+            public int size() {
+                return rowCells.size();
+            }
+
+            @Override
+            public CellType getCellType(int column) {
+                return column < rowCells.size() ? CellType.STRING : CellType.BLANK;
+            }
+
+            @Override
+            public String getString(int column) {
+                return column < rowCells.size() ? rowCells.get(column) : null;
+            }
+
+            @Override
+            public double getNumber(int column) {
+                return Double.NaN;
+            }
+
+            @Override
+            public List<String> toList() {
+                return rowCells;
+            }
+        };
+    }
+}
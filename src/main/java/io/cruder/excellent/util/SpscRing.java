@@ -0,0 +1,183 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * SpscRing: Bounded ring for exactly one producer thread and one consumer thread.
+ * <p>Slots are published by ordered writes of the head and tail counters, so neither side takes a lock.
+ * A side which finds the ring full or empty spins, then yields, then parks shortly, since batches are
+ * handed over rarely enough that waking a parked thread by signal is not worth a lock.</p>
+ *
+ * @author cruder
+ * @since 2020-03-23
+ */
+public final class SpscRing<E> {
+
+    private static final int SPINS = 100;
+    private static final int YIELDS = 100;
+    private static final long PARK_NANOS = 50_000L;
+
+    private final Object[] slots;
+    private final int mask;
+
+    /**
+     * Next slot to take, written by consumer only.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Next slot to put, written by producer only.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * Create ring.
+     *
+     * @param capacity minimal capacity, rounded up to power of two
+     */
+    public SpscRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        slots = new Object[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Put element, waiting while ring is full. Only called by producer.
+     *
+     * @param element element
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void put(E element) throws InterruptedException {
+        int idle = 0;
+        while (!offer(element)) {
+            idle = idle(idle);
+        }
+    }
+
+    /**
+     * Put element if there is free slot. Only called by producer.
+     *
+     * @param element element
+     * @return whether the element is put
+     */
+    public boolean offer(E element) {
+        long t = tail.get();
+        if (t - head.get() == slots.length) {
+            return false;
+        }
+        slots[(int) t & mask] = element;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Take element if present. Only called by consumer.
+     *
+     * @return element, null if ring is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long h = head.get();
+        if (h == tail.get()) {
+            return null;
+        }
+        int index = (int) h & mask;
+        E element = (E) slots[index];
+        slots[index] = null;
+        head.lazySet(h + 1);
+        return element;
+    }
+
+    /**
+     * Take element, waiting while ring is empty and open. Only called by consumer.
+     *
+     * @return element, null if ring is closed and drained
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public E take() throws InterruptedException {
+        return take(() -> false);
+    }
+
+    /**
+     * Take element, waiting while ring is empty, open and not stopped. Only called by consumer.
+     *
+     * @param stopped checked while waiting, such as cancellation of reading
+     * @return element, null if ring is closed and drained, or waiting is stopped
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public E take(BooleanSupplier stopped) throws InterruptedException {
+        int idle = 0;
+        E element;
+        while ((element = poll()) == null) {
+            if (stopped.getAsBoolean()) {
+                return null;
+            }
+            if (closed) {
+                // Elements put before closing are visible once closed is seen.
+                return poll();
+            }
+            idle = idle(idle);
+        }
+        return element;
+    }
+
+    /**
+     * Mark no more element will be put. Only called by producer.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * Whether producer closed the ring, elements put before are visible to who sees it.
+     *
+     * @return true if closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Back off of a waiting side, spinning, then yielding, then parking shortly.
+     *
+     * @param idle times waited so far, 0 at first
+     * @return times waited including this one
+     * @throws InterruptedException if interrupted
+     */
+    public static int idle(int idle) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (idle >= SPINS + YIELDS) {
+            LockSupport.parkNanos(PARK_NANOS);
+        } else if (idle >= SPINS) {
+            Thread.yield();
+        }
+        return idle + 1;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.util;
+
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.ExcelGeneralNumberFormat;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.util.LocaleUtil;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormatSymbols;
+import java.text.Format;
+import java.util.Locale;
+
+/**
+ * StyleFormats: Data format of each cell style of a workbook, immutable once built so that it can be shared by
+ * threads and by readers of workbooks with the same styles, see {@link GlobalsCache}.
+ * <p>Each style is classified once, so that formatting a cell takes a lookup of its kind instead of scanning its
+ * format string: numbers of general format are formatted as {@link DataFormatter} does without going through it,
+ * and other formats are left to it. Formatters are confined to threads, and keep formats they compiled for later
+ * reads of the same styles.</p>
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public final class StyleFormats {
+
+    private static final byte GENERAL = 0;
+    private static final byte DATE = 1;
+    private static final byte OTHER = 2;
+
+    /**
+     * Whole numbers below it are formatted by general format as plain digits.
+     */
+    private static final double WHOLE_LIMIT = 1E11;
+
+    private final int[] formatIndexes;
+    private final String[] formatStrings;
+    private final byte[] kinds;
+
+    /**
+     * Format string and kind of styles out of table.
+     */
+    private final String undefinedFormat;
+    private final byte undefinedKind;
+
+    private final ThreadLocal<Formatters> formatters = ThreadLocal.withInitial(Formatters::new);
+
+    /**
+     * @param formatIndexes   format index of each style
+     * @param formatStrings   format string of each style, nullable
+     * @param undefinedFormat format string of styles out of table, nullable
+     */
+    public StyleFormats(int[] formatIndexes, String[] formatStrings, String undefinedFormat) {
+        if (formatIndexes.length != formatStrings.length) {
+            throw new IllegalArgumentException("Format indexes and strings must be of the same styles.");
+        }
+        this.formatIndexes = formatIndexes.clone();
+        this.formatStrings = formatStrings.clone();
+        this.undefinedFormat = undefinedFormat;
+        this.kinds = new byte[formatIndexes.length];
+        for (int i = 0; i < kinds.length; i++) {
+            kinds[i] = classify(formatIndexes[i], formatStrings[i]);
+        }
+        this.undefinedKind = classify(-1, undefinedFormat);
+    }
+
+    private static byte classify(int formatIndex, String formatString) {
+        if (DateUtil.isADateFormat(formatIndex, formatString)) {
+            return DATE;
+        }
+        if (formatString == null || "General".equalsIgnoreCase(formatString) || "@".equals(formatString)) {
+            return GENERAL;
+        }
+        return OTHER;
+    }
+
+    /**
+     * @return count of styles
+     */
+    public int size() {
+        return formatIndexes.length;
+    }
+
+    /**
+     * @param style style index
+     * @return format index, -1 if style is not defined
+     */
+    public int getFormatIndex(int style) {
+        return style >= 0 && style < formatIndexes.length ? formatIndexes[style] : -1;
+    }
+
+    /**
+     * @param style style index
+     * @return format string, format of undefined styles if style is not defined
+     */
+    public String getFormatString(int style) {
+        return style >= 0 && style < formatStrings.length ? formatStrings[style] : undefinedFormat;
+    }
+
+    /**
+     * @param style style index
+     * @return true if style is of date format
+     */
+    public boolean isDate(int style) {
+        return kindOf(style) == DATE;
+    }
+
+    /**
+     * Format number by format of style as {@link DataFormatter#formatRawCellContents(double, int, String)}, style
+     * without format string is formatted as general.
+     *
+     * @param value raw value
+     * @param style style index
+     * @return formatted text
+     */
+    public String format(double value, int style) {
+        Formatters current = formatters.get();
+        if (kindOf(style) == GENERAL) {
+            return current.general(value);
+        }
+        return current.dataFormatter.formatRawCellContents(value, getFormatIndex(style), getFormatString(style));
+    }
+
+    private byte kindOf(int style) {
+        return style >= 0 && style < kinds.length ? kinds[style] : undefinedKind;
+    }
+
+    /**
+     * Formatters: Formatters of one thread.
+     */
+    private static final class Formatters {
+
+        private final DataFormatter dataFormatter = new DataFormatter();
+        private final Format generalFormat;
+
+        /**
+         * Digits and minus sign of locale are ascii ones, so whole numbers are formatted as plain digits.
+         */
+        private final boolean asciiDigits;
+
+        Formatters() {
+            Locale locale = LocaleUtil.getUserLocale();
+            generalFormat = new ExcelGeneralNumberFormat(locale);
+            DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+            asciiDigits = symbols.getZeroDigit() == '0' && symbols.getMinusSign() == '-';
+        }
+
+        /**
+         * Format number by general format, as data formatter does through text of number.
+         *
+         * @param value raw value
+         * @return formatted text
+         */
+        String general(double value) {
+            if (asciiDigits && value == Math.rint(value) && Math.abs(value) < WHOLE_LIMIT) {
+                return Long.toString((long) value);
+            }
+            String text = NumberToTextConverter.toText(value);
+            String result = text.indexOf('E') > -1 ? generalFormat.format(value)
+                    : generalFormat.format(new BigDecimal(text));
+            if (result.indexOf('E') > -1 && !result.contains("E-")) {
+                result = result.replaceFirst("E", "E+");
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.xssf;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.util.IOUtils;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * io.cruder.excellent.xssf.LazySharedStrings: Shared strings indexed on demand, in place of
+ * {@link org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable} which keeps every string on heap.
+ * <p>Shared strings xml is pulled only as far as the largest index asked for, and each item is kept as UTF-8 bytes
+ * with its end offset outside heap, in direct buffers first and then in a memory mapped temporary file which is
+ * deleted once indexing completes. Strings are decoded when asked for, with a small cache of recent ones, so heap
+ * use does not grow with count of strings.</p>
+ * <p>Text runs of an item are joined like {@link org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable}.
+ * It can be read by threads at the same time.</p>
+ *
+ * @author cruder.io
+ * @since 2020-03-25
+ */
+@Slf4j
+final class LazySharedStrings {
+
+    private static final String ITEM = "si";
+    private static final String TEXT = "t";
+
+    /**
+     * Recent strings kept decoded.
+     */
+    private static final int CACHE_SIZE = 4096;
+
+    private final InputStream input;
+    private final XMLStreamReader xml;
+
+    /**
+     * UTF-8 bytes of items, and end offset of each item.
+     */
+    private final Segments bytes = new Segments();
+    private final Segments ends = new Segments();
+    private long size;
+
+    /**
+     * Count of indexed items, written under lock of indexing.
+     */
+    private volatile int count;
+    private boolean indexed;
+
+    private final StringBuilder item = new StringBuilder();
+    private byte[] encoded = new byte[256];
+
+    private final Map<Integer, String> cache = new LinkedHashMap<Integer, String>(CACHE_SIZE, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * @param input shared strings xml, nullable if workbook has none
+     * @throws XMLStreamException if xml can not be read
+     */
+    LazySharedStrings(InputStream input) throws XMLStreamException {
+        this.input = input;
+        if (input == null) {
+            xml = null;
+            indexed = true;
+        } else {
+            XMLInputFactory factory = XMLInputFactory.newFactory();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+            xml = factory.createXMLStreamReader(input);
+        }
+    }
+
+    /**
+     * Shared string at index.
+     *
+     * @param index index of string item
+     * @return string
+     * @throws IndexOutOfBoundsException if workbook has no such item
+     */
+    String getEntryAt(int index) {
+        if (index >= count) {
+            index(index);
+        }
+        synchronized (cache) {
+            String string = cache.get(index);
+            if (string != null) {
+                return string;
+            }
+        }
+        long start = index == 0 ? 0 : ends.getLong((long) (index - 1) * Long.BYTES);
+        long end = ends.getLong((long) index * Long.BYTES);
+        byte[] utf8 = new byte[(int) (end - start)];
+        bytes.get(start, utf8, utf8.length);
+        String string = new String(utf8, StandardCharsets.UTF_8);
+        synchronized (cache) {
+            cache.put(index, string);
+        }
+        return string;
+    }
+
+    /**
+     * Pull items until index is covered or xml ends.
+     */
+    private synchronized void index(int index) {
+        try {
+            boolean textOpen = false;
+            while (count <= index && !indexed) {
+                switch (xml.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        if (ITEM.equals(xml.getLocalName())) {
+                            item.setLength(0);
+                        } else if (TEXT.equals(xml.getLocalName())) {
+                            textOpen = true;
+                        }
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        if (textOpen) {
+                            item.append(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength());
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (ITEM.equals(xml.getLocalName())) {
+                            append();
+                        } else if (TEXT.equals(xml.getLocalName())) {
+                            textOpen = false;
+                        }
+                        break;
+                    case XMLStreamConstants.END_DOCUMENT:
+                        finish();
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (XMLStreamException e) {
+            log.info("Read shared strings failure.", e);
+            finish();
+        }
+        if (index >= count) {
+            throw new IndexOutOfBoundsException(String.format("Shared string [%d] of [%d].", index, count));
+        }
+    }
+
+    /**
+     * Stop indexing and delete temporary file, items indexed stay readable.
+     */
+    synchronized void close() {
+        if (!indexed) {
+            finish();
+        }
+    }
+
+    /**
+     * Store current item and publish it.
+     */
+    private void append() {
+        int length = encode(item);
+        bytes.put(size, encoded, length);
+        size += length;
+        ends.putLong((long) count * Long.BYTES, size);
+        count++;
+    }
+
+    private void finish() {
+        indexed = true;
+        try {
+            xml.close();
+        } catch (XMLStreamException e) {
+            log.debug("Close shared strings failure.", e);
+        }
+        IOUtils.closeQuietly(input);
+        bytes.release();
+        ends.release();
+    }
+
+    /**
+     * Encode chars into UTF-8 bytes of {@link #encoded}.
+     *
+     * @return length of bytes
+     */
+    private int encode(CharSequence chars) {
+        int length = chars.length();
+        if (encoded.length < length * 3) {
+            encoded = new byte[Math.max(length * 3, encoded.length << 1)];
+        }
+        int position = 0;
+        for (int i = 0; i < length; i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                encoded[position++] = (byte) c;
+            } else if (c < 0x800) {
+                encoded[position++] = (byte) (0xC0 | c >> 6);
+                encoded[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+                encoded[position++] = (byte) (0xF0 | codePoint >> 18);
+                encoded[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                encoded[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                encoded[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else {
+                encoded[position++] = (byte) (0xE0 | c >> 12);
+                encoded[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                encoded[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Segments: Byte space outside heap made of fixed size segments, direct buffers first and then mapped from a
+     * temporary file. Written by one thread, and read by any thread up to what is published.
+     */
+    private static final class Segments {
+
+        private static final int SEGMENT_SHIFT = 20;
+        private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+        private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+        /**
+         * Segments kept in direct buffers, 64MB, more are spilled to file.
+         */
+        private static final int DIRECT_SEGMENTS = 64;
+
+        private volatile ByteBuffer[] segments = new ByteBuffer[0];
+        private FileChannel spill;
+
+        void put(long position, byte[] src, int length) {
+            int offset = 0;
+            while (offset < length) {
+                ByteBuffer segment = segment(position + offset, true).duplicate();
+                int at = (int) (position + offset) & SEGMENT_MASK;
+                int count = Math.min(length - offset, SEGMENT_SIZE - at);
+                segment.position(at);
+                segment.put(src, offset, count);
+                offset += count;
+            }
+        }
+
+        void putLong(long position, long value) {
+            segment(position, true).putLong((int) position & SEGMENT_MASK, value);
+        }
+
+        void get(long position, byte[] dst, int length) {
+            int offset = 0;
+            while (offset < length) {
+                ByteBuffer segment = segment(position + offset, false).duplicate();
+                int at = (int) (position + offset) & SEGMENT_MASK;
+                int count = Math.min(length - offset, SEGMENT_SIZE - at);
+                segment.position(at);
+                segment.get(dst, offset, count);
+                offset += count;
+            }
+        }
+
+        long getLong(long position) {
+            return segment(position, false).getLong((int) position & SEGMENT_MASK);
+        }
+
+        private ByteBuffer segment(long position, boolean grow) {
+            int index = (int) (position >>> SEGMENT_SHIFT);
+            ByteBuffer[] current = segments;
+            if (index < current.length) {
+                return current[index];
+            }
+            if (!grow) {
+                throw new IndexOutOfBoundsException();
+            }
+            ByteBuffer[] grown = Arrays.copyOf(current, index + 1);
+            for (int i = current.length; i <= index; i++) {
+                grown[i] = allocate(i);
+            }
+            segments = grown;
+            return grown[index];
+        }
+
+        private ByteBuffer allocate(int index) {
+            if (index < DIRECT_SEGMENTS) {
+                return ByteBuffer.allocateDirect(SEGMENT_SIZE);
+            }
+            try {
+                if (spill == null) {
+                    Path file = Files.createTempFile("excel-lent-sst", ".tmp");
+                    spill = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                            StandardOpenOption.DELETE_ON_CLOSE);
+                }
+                return spill.map(FileChannel.MapMode.READ_WRITE,
+                        (long) (index - DIRECT_SEGMENTS) << SEGMENT_SHIFT, SEGMENT_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * No more segment is needed, temporary file is deleted while its mappings stay valid.
+         */
+        void release() {
+            IOUtils.closeQuietly(spill);
+            spill = null;
+        }
+    }
+}
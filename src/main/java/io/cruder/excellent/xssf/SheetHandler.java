@@ -0,0 +1,248 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.xssf;
+
+import io.cruder.excellent.util.Numbers;
+import io.cruder.excellent.util.RowBuffer;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * io.cruder.excellent.xssf.SheetHandler: Sax handler of sheet xml, which fills cells into row buffer with their raw
+ * value, in place of {@link org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler} which formats every cell.
+ *
+ * @author cruder.io
+ * @since 2020-03-20
+ */
+class SheetHandler extends DefaultHandler {
+
+    private static final String ROW = "row";
+    private static final String CELL = "c";
+    private static final String VALUE = "v";
+    private static final String INLINE_STRING = "is";
+    private static final String TEXT = "t";
+    private static final String ATTRIBUTE_TYPE = "t";
+    private static final String ATTRIBUTE_STYLE = "s";
+    private static final String ATTRIBUTE_ROW = "r";
+    private static final String ATTRIBUTE_REFERENCE = "r";
+    private static final int MAX_COLUMNS = SpreadsheetVersion.EXCEL2007.getMaxColumns();
+
+    /**
+     * Row buffer to fill.
+     */
+    private RowBuffer row;
+
+    /**
+     * Row callback.
+     */
+    private final RowCallback callback;
+
+    /**
+     * Whether cells of column are read, others are left blank.
+     */
+    private final IntPredicate projected;
+
+    /**
+     * Workbook has no styles, whose numbers are read as their raw value text, as poi reads them without styles table.
+     */
+    private final boolean rawNumbers;
+
+    /**
+     * Current cell type and style.
+     */
+    private String cellType;
+    private int cellStyle;
+
+    /**
+     * Value chars of current cell.
+     */
+    private char[] value = new char[64];
+    private int valueLength;
+    private boolean valueOpen;
+    private boolean hasValue;
+    private boolean inlineStringOpen;
+    private boolean skippingCell;
+
+    SheetHandler(RowBuffer row, RowCallback callback, IntPredicate projected, boolean rawNumbers) {
+        this.row = row;
+        this.callback = callback;
+        this.projected = projected;
+        this.rawNumbers = rawNumbers;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        switch (localName) {
+            case ROW:
+                row.clear();
+                String rowNum = attributes.getValue(ATTRIBUTE_ROW);
+                if (rowNum != null) {
+                    row.setRowNum(Integer.parseInt(rowNum) - 1);
+                }
+                break;
+            case CELL:
+                valueLength = 0;
+                hasValue = false;
+                // Cells left out of sheet xml are blank, so gaps before this cell are filled at once.
+                row.padTo(column(attributes.getValue(ATTRIBUTE_REFERENCE)));
+                skippingCell = !projected.test(row.size());
+                if (skippingCell) {
+                    break;
+                }
+                cellType = attributes.getValue(ATTRIBUTE_TYPE);
+                String style = attributes.getValue(ATTRIBUTE_STYLE);
+                cellStyle = style == null ? 0 : Integer.parseInt(style);
+                break;
+            case VALUE:
+                valueOpen = !skippingCell;
+                hasValue = true;
+                break;
+            case INLINE_STRING:
+                inlineStringOpen = true;
+                hasValue = true;
+                break;
+            case TEXT:
+                valueOpen = inlineStringOpen && !skippingCell;
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        switch (localName) {
+            case VALUE:
+            case TEXT:
+                valueOpen = false;
+                break;
+            case INLINE_STRING:
+                inlineStringOpen = false;
+                break;
+            case CELL:
+                if (hasValue) {
+                    if (skippingCell) {
+                        row.addBlank();
+                    } else {
+                        endCell();
+                    }
+                }
+                break;
+            case ROW:
+                row = callback.endRow(row);
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (valueOpen) {
+            if (valueLength + length > value.length) {
+                value = Arrays.copyOf(value, Math.max(value.length << 1, valueLength + length));
+            }
+            System.arraycopy(ch, start, value, valueLength, length);
+            valueLength += length;
+        }
+    }
+
+    /**
+     * Decode column index from letters of cell reference, such as 27 from "AB12", without allocating.
+     *
+     * @param reference cell reference, may be null
+     * @return column index starting from 0, or current width of row if reference has no valid column
+     */
+    private int column(String reference) {
+        if (reference == null) {
+            return row.size();
+        }
+        int column = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            char c = reference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + c - 'A' + 1;
+            if (column > MAX_COLUMNS) {
+                return row.size();
+            }
+        }
+        return column == 0 ? row.size() : column - 1;
+    }
+
+    /**
+     * Add current cell to row by its type.
+     */
+    private void endCell() {
+        if (cellType == null || "n".equals(cellType)) {
+            if (Numbers.isNumber(value, 0, valueLength)) {
+                double number = Numbers.parseDouble(value, 0, valueLength);
+                if (rawNumbers) {
+                    row.addNumber(number, new String(value, 0, valueLength));
+                } else {
+                    row.addNumber(number, cellStyle);
+                }
+            } else {
+                row.addText(new String(value, 0, valueLength));
+            }
+            return;
+        }
+        switch (cellType) {
+            case "s":
+                row.addShared(Numbers.parseInt(value, 0, valueLength));
+                break;
+            case "str":
+                // String result of formula, which is text even if it looks like a number.
+                row.addText(new String(value, 0, valueLength));
+                break;
+            case "b":
+                row.addBoolean(valueLength > 0 && value[0] != '0');
+                break;
+            case "e":
+                row.addError("ERROR:" + new String(value, 0, valueLength));
+                break;
+            default:
+                // inlineStr and others.
+                row.addText(new String(value, 0, valueLength));
+                break;
+        }
+    }
+
+    /**
+     * RowCallback: Callback at end of each row, which hands the row over.
+     *
+     * @author cruder.io
+     * @since 2020-03-20
+     */
+    @FunctionalInterface
+    interface RowCallback {
+
+        /**
+         * Row is complete.
+         *
+         * @param row row buffer, owned by callback from now on
+         * @return row buffer for next row
+         * @throws SAXException to stop parsing
+         */
+        RowBuffer endRow(RowBuffer row) throws SAXException;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.xssf;
+
+import io.cruder.excellent.util.StyleFormats;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * io.cruder.excellent.xssf.StylesHandler: Sax handler of styles xml, which keeps only data format of each cell style,
+ * in place of {@link org.apache.poi.xssf.model.StylesTable}.
+ * <p>Parsed styles are turned into {@link StyleFormats}, which is shared by threads.</p>
+ *
+ * @author cruder.io
+ * @since 2020-03-24
+ */
+class StylesHandler extends DefaultHandler {
+
+    private static final String NUMBER_FORMAT = "numFmt";
+    private static final String CELL_FORMATS = "cellXfs";
+    private static final String CELL_FORMAT = "xf";
+    private static final String ATTRIBUTE_FORMAT_ID = "numFmtId";
+    private static final String ATTRIBUTE_FORMAT_CODE = "formatCode";
+
+    /**
+     * Format of styles out of table.
+     */
+    private static final int GENERAL = 0;
+
+    private final Map<Integer, String> numberFormats = new HashMap<>();
+    private int[] styleFormats = new int[16];
+    private int styles;
+    private boolean cellFormatsOpen;
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        switch (localName) {
+            case NUMBER_FORMAT:
+                numberFormats.put(Integer.parseInt(attributes.getValue(ATTRIBUTE_FORMAT_ID)),
+                        attributes.getValue(ATTRIBUTE_FORMAT_CODE));
+                break;
+            case CELL_FORMATS:
+                cellFormatsOpen = true;
+                break;
+            case CELL_FORMAT:
+                if (cellFormatsOpen) {
+                    if (styles == styleFormats.length) {
+                        styleFormats = Arrays.copyOf(styleFormats, styles << 1);
+                    }
+                    String formatId = attributes.getValue(ATTRIBUTE_FORMAT_ID);
+                    styleFormats[styles++] = formatId == null ? GENERAL : Integer.parseInt(formatId);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        if (CELL_FORMATS.equals(localName)) {
+            cellFormatsOpen = false;
+        }
+    }
+
+    /**
+     * Data format index of cell style.
+     *
+     * @param style cell style index
+     * @return format index, -1 if style is not defined
+     */
+    int getFormatIndex(int style) {
+        return style >= 0 && style < styles ? styleFormats[style] : -1;
+    }
+
+    /**
+     * Data format string of cell style, custom format or built in one.
+     *
+     * @param style cell style index
+     * @return format string, General if style is not defined
+     */
+    String getFormatString(int style) {
+        int formatIndex = getFormatIndex(style);
+        if (formatIndex < 0) {
+            return BuiltinFormats.getBuiltinFormat(GENERAL);
+        }
+        String formatString = numberFormats.get(formatIndex);
+        return formatString == null ? BuiltinFormats.getBuiltinFormat(formatIndex) : formatString;
+    }
+
+    /**
+     * @return immutable formats of parsed styles
+     */
+    StyleFormats toStyleFormats() {
+        String[] formatStrings = new String[styles];
+        for (int i = 0; i < styles; i++) {
+            formatStrings[i] = getFormatString(i);
+        }
+        return new StyleFormats(Arrays.copyOf(styleFormats, styles), formatStrings,
+                BuiltinFormats.getBuiltinFormat(GENERAL));
+    }
+}
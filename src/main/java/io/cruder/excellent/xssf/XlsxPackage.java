@@ -0,0 +1,285 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.xssf;
+
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * io.cruder.excellent.xssf.XlsxPackage: Parts of xlsx workbook located by package relationships, in place of
+ * {@link org.apache.poi.xssf.eventusermodel.XSSFReader}.
+ *
+ * @author cruder.io
+ * @since 2020-03-24
+ */
+final class XlsxPackage {
+
+    private static final String PACKAGE_RELATIONSHIPS = "_rels/.rels";
+    private static final String DEFAULT_WORKBOOK = "xl/workbook.xml";
+
+    /**
+     * Relationship types end the same in transitional and strict namespaces.
+     */
+    private static final String OFFICE_DOCUMENT = "/officeDocument";
+    private static final String WORKSHEET = "/worksheet";
+    private static final String SHARED_STRINGS = "/sharedStrings";
+    private static final String STYLES = "/styles";
+
+    private final ZipArchive archive;
+    private final List<SheetPart> sheets = new ArrayList<>();
+    private String sharedStrings;
+    private String styles;
+
+    XlsxPackage(ZipArchive archive) throws IOException, SAXException, ParserConfigurationException {
+        this.archive = archive;
+        String workbook = DEFAULT_WORKBOOK;
+        if (archive.contains(PACKAGE_RELATIONSHIPS)) {
+            for (Relationship relationship : relationships(PACKAGE_RELATIONSHIPS, "")) {
+                if (relationship.type.endsWith(OFFICE_DOCUMENT)) {
+                    workbook = relationship.target;
+                }
+            }
+        }
+        Map<String, String> worksheets = new HashMap<>();
+        for (Relationship relationship : relationships(relationshipsOf(workbook), directoryOf(workbook))) {
+            if (relationship.type.endsWith(WORKSHEET)) {
+                worksheets.put(relationship.id, relationship.target);
+            } else if (relationship.type.endsWith(SHARED_STRINGS)) {
+                sharedStrings = relationship.target;
+            } else if (relationship.type.endsWith(STYLES)) {
+                styles = relationship.target;
+            }
+        }
+        parse(workbook, new DefaultHandler() {
+            @Override
+            public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                if ("sheet".equals(localName)) {
+                    String part = worksheets.get(relationshipId(attributes));
+                    if (part != null) {
+                        sheets.add(new SheetPart(attributes.getValue("name"), part));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * @return worksheets in workbook order, chart sheets are not included.
+     */
+    List<SheetPart> getSheets() {
+        return sheets;
+    }
+
+    /**
+     * Open shared strings part.
+     *
+     * @return content, null if workbook has no shared strings
+     * @throws IOException if part can not be read
+     */
+    InputStream openSharedStrings() throws IOException {
+        return sharedStrings == null || !archive.contains(sharedStrings) ? null : archive.open(sharedStrings);
+    }
+
+    /**
+     * Open styles part.
+     *
+     * @return content, null if workbook has no styles
+     * @throws IOException if part can not be read
+     */
+    InputStream openStyles() throws IOException {
+        return styles == null || !archive.contains(styles) ? null : archive.open(styles);
+    }
+
+    /**
+     * Open worksheet part.
+     *
+     * @param sheet worksheet
+     * @return content
+     * @throws IOException if part can not be read
+     */
+    InputStream open(SheetPart sheet) throws IOException {
+        return archive.open(sheet.part);
+    }
+
+    /**
+     * Rows between first and last row of worksheet by its dimension, which is read before sheet data.
+     *
+     * @param sheet worksheet
+     * @return rows, -1 if worksheet has no dimension of a range
+     * @throws IOException        if part can not be read
+     * @throws XMLStreamException if part is not well formed
+     */
+    int dimensionRows(SheetPart sheet) throws IOException, XMLStreamException {
+        try (InputStream is = open(sheet)) {
+            XMLInputFactory factory = XMLInputFactory.newFactory();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            XMLStreamReader xml = factory.createXMLStreamReader(is);
+            try {
+                while (xml.hasNext()) {
+                    if (xml.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    if ("sheetData".equals(xml.getLocalName())) {
+                        return -1;
+                    }
+                    if ("dimension".equals(xml.getLocalName())) {
+                        String ref = xml.getAttributeValue(null, "ref");
+                        if (ref == null) {
+                            return -1;
+                        }
+                        // Streaming writers leave a single cell like A1 as placeholder, which tells nothing.
+                        int colon = ref.indexOf(':');
+                        if (colon < 0) {
+                            return -1;
+                        }
+                        int first = rowOf(ref.substring(0, colon));
+                        int last = rowOf(ref.substring(colon + 1));
+                        return first < 0 || last < first ? -1 : last - first + 1;
+                    }
+                }
+                return -1;
+            } finally {
+                xml.close();
+            }
+        }
+    }
+
+    /**
+     * @return row number of cell reference like {@code H20}, -1 if there is none
+     */
+    private static int rowOf(String reference) {
+        int i = 0;
+        while (i < reference.length() && !Character.isDigit(reference.charAt(i))) {
+            i++;
+        }
+        return i == reference.length() ? -1 : Integer.parseInt(reference.substring(i));
+    }
+
+    private List<Relationship> relationships(String part, String directory)
+            throws IOException, SAXException, ParserConfigurationException {
+        List<Relationship> relationships = new ArrayList<>();
+        if (!archive.contains(part)) {
+            return relationships;
+        }
+        parse(part, new DefaultHandler() {
+            @Override
+            public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                if ("Relationship".equals(localName) && !"External".equals(attributes.getValue("TargetMode"))) {
+                    relationships.add(new Relationship(attributes.getValue("Id"), attributes.getValue("Type"),
+                            resolve(directory, attributes.getValue("Target"))));
+                }
+            }
+        });
+        return relationships;
+    }
+
+    private void parse(String part, DefaultHandler handler)
+            throws IOException, SAXException, ParserConfigurationException {
+        try (InputStream is = archive.open(part)) {
+            XMLReader xmlReader = SAXHelper.newXMLReader();
+            xmlReader.setContentHandler(handler);
+            xmlReader.parse(new InputSource(is));
+        }
+    }
+
+    /**
+     * Relationship id is the namespaced {@code r:id} attribute.
+     */
+    private static String relationshipId(Attributes attributes) {
+        for (int i = 0; i < attributes.getLength(); i++) {
+            if ("id".equals(attributes.getLocalName(i)) && !attributes.getURI(i).isEmpty()) {
+                return attributes.getValue(i);
+            }
+        }
+        return null;
+    }
+
+    private static String relationshipsOf(String part) {
+        String directory = directoryOf(part);
+        return directory + "_rels/" + part.substring(directory.length()) + ".rels";
+    }
+
+    private static String directoryOf(String part) {
+        return part.substring(0, part.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Resolve target against directory of source part, into zip entry name.
+     */
+    private static String resolve(String directory, String target) {
+        String path = target.startsWith("/") ? target.substring(1) : directory + target;
+        Deque<String> names = new ArrayDeque<>();
+        for (String name : path.split("/")) {
+            if ("..".equals(name)) {
+                names.pollLast();
+            } else if (!name.isEmpty() && !".".equals(name)) {
+                names.addLast(name);
+            }
+        }
+        return String.join("/", names);
+    }
+
+    /**
+     * SheetPart: Worksheet name and its part.
+     */
+    static final class SheetPart {
+        private final String name;
+        private final String part;
+
+        SheetPart(String name, String part) {
+            this.name = name;
+            this.part = part;
+        }
+
+        String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Relationship: Internal relationship of a part.
+     */
+    private static final class Relationship {
+        private final String id;
+        private final String type;
+        private final String target;
+
+        Relationship(String id, String type, String target) {
+            this.id = id;
+            this.type = type;
+            this.target = target;
+        }
+    }
+}
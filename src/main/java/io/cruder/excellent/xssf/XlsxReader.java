@@ -16,28 +16,30 @@
 package io.cruder.excellent.xssf;
 
 import io.cruder.excellent.AbstractExcelReader;
+import io.cruder.excellent.exception.ExcelReadException;
+import io.cruder.excellent.pojo.Sheet;
+import io.cruder.excellent.util.GlobalsCache;
+import io.cruder.excellent.util.RowBatch;
+import io.cruder.excellent.util.RowBuffer;
+import io.cruder.excellent.util.RowView;
+import io.cruder.excellent.util.SpscRing;
+import io.cruder.excellent.util.StyleFormats;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ooxml.util.SAXHelper;
-import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
-import org.apache.poi.openxml4j.opc.OPCPackage;
-import org.apache.poi.openxml4j.opc.PackageAccess;
-import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.util.IOUtils;
-import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
-import org.apache.poi.xssf.eventusermodel.XSSFReader;
-import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
-import org.apache.poi.xssf.usermodel.XSSFComment;
-import org.xml.sax.ContentHandler;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 
 import javax.xml.parsers.ParserConfigurationException;
-import java.io.File;
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.*;
@@ -49,126 +51,454 @@ import java.util.concurrent.*;
  * @since 2020-03-11
  */
 @Slf4j
-public class XlsxReader<T> extends AbstractExcelReader<T> implements XSSFSheetXMLHandler.SheetContentsHandler {
+public class XlsxReader<T> extends AbstractExcelReader<T> {
 
     /**
-     * Parse thread pool.
+     * Zip archive of workbook, mapped from file or spooled from stream.
      */
-    private final static ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(
-            (int) (Runtime.getRuntime().availableProcessors() * 0.6),
-            Runtime.getRuntime().availableProcessors() * 2,
-            15L,
-            TimeUnit.SECONDS,
-            new LinkedBlockingDeque<>(Runtime.getRuntime().availableProcessors() * 10),
-            Executors.defaultThreadFactory(),
-            new ThreadPoolExecutor.CallerRunsPolicy()
-    );
+    private final ZipArchive archive;
 
     /**
-     * XSSF
+     * Batches filled by parse thread of one sheet and not taken yet.
      */
-    private OPCPackage opc;
-    private final static String TEMP_FILE_PATH = "/tmp/excel/lent/";
-    private BlockingQueue<List<String>> cachedRows = new LinkedBlockingQueue<>(10);
+    private final static int CACHED_BATCHES = 4;
+
+    /**
+     * Sheets not claimed by workers yet, and lock of claiming.
+     */
+    private List<XlsxPackage.SheetPart> sheets;
+    private XlsxPackage xlsxPackage;
+    private int claimedSheets;
+    private final Object claimLock = new Object();
+
+    /**
+     * Channels of claimed sheets in sheet order, handed from workers to consumer.
+     */
+    private final BlockingQueue<SheetChannel> claimedChannels = new LinkedBlockingQueue<>();
+    private volatile boolean allClaimed;
+
+    /**
+     * Channels held by consumer until drained, and the one read last.
+     */
+    private final List<SheetChannel> channels = new ArrayList<>();
+    private int cursor;
 
     /**
      * Current
      */
-    private String currentFilePath;
-    private List<String> rowCells = new ArrayList<>();
-    private CompletableFuture<?> readFuture;
+    private boolean started;
+    private boolean finished;
+
+    /**
+     * Unexpected failure of worker, raised by read once sheets claimed before are read.
+     */
+    private volatile Throwable failure;
+
+    /**
+     * Workbook styles and shared strings, shared read only by workers and read by row buffers of consumer thread.
+     */
+    private StyleFormats styles;
+    private LazySharedStrings sharedStrings;
+
+    /**
+     * Workbook has no styles part, numbers are read as their raw value text like poi does without styles table.
+     */
+    private boolean rawNumbers;
+
+    /**
+     * Creates a new XLSX reader, file is memory mapped, otherwise stream is spooled into a memory mapped temporary
+     * file.
+     *
+     * @param filePath    file path, nullable
+     * @param inputStream input stream of file, closed once read
+     * @param clazz       generic class
+     * @throws IOException IO exception
+     */
+    public XlsxReader(String filePath, InputStream inputStream, Class<T> clazz) throws IOException {
+        this(open(filePath, inputStream), clazz);
+    }
 
-    public XlsxReader(String filePath, InputStream inputStream, Class<T> clazz) throws OpenXML4JException, IOException {
+    /**
+     * Creates a new XLSX reader over memory mapped channel.
+     *
+     * @param channel file channel, which can be closed once constructed
+     * @param clazz   generic class
+     * @throws IOException IO exception
+     */
+    public XlsxReader(FileChannel channel, Class<T> clazz) throws IOException {
+        this(ZipArchive.map(channel), clazz);
+    }
+
+    private XlsxReader(ZipArchive archive, Class<T> clazz) {
         super(clazz);
+        this.archive = archive;
+    }
 
-        if (filePath == null || filePath.isEmpty()) {
-            currentFilePath = TEMP_FILE_PATH
-                    .concat(clazz.getSimpleName())
-                    .concat(String.valueOf(System.currentTimeMillis()));
-            File destFile = new File(currentFilePath);
-            IOUtils.copy(inputStream, destFile);
+    private static ZipArchive open(String filePath, InputStream inputStream) throws IOException {
+        try {
+            if (filePath == null || filePath.isEmpty()) {
+                return ZipArchive.read(inputStream);
+            }
+            return ZipArchive.map(Paths.get(filePath));
+        } finally {
             IOUtils.closeQuietly(inputStream);
-        } else {
-            currentFilePath = filePath;
         }
-        opc = OPCPackage.open(currentFilePath, PackageAccess.READ);
-        startRead();
     }
 
     /**
-     * Start read file asynchronously.
+     * Start read file asynchronously, at the first read so that batch size and parallelism are settled.
+     * <p>Workers claim sheets one by one in sheet order, a single worker parses sheets sequentially.</p>
      */
     private void startRead() {
-        readFuture = CompletableFuture.runAsync(() -> {
-            XSSFReader xssfReader;
+        int workers = parallelSheets ? Runtime.getRuntime().availableProcessors() : 1;
+        started = true;
+        execute(() -> {
             try {
-                xssfReader = new XSSFReader(opc);
+                xlsxPackage = new XlsxPackage(archive);
+                InputStream stylesPart = xlsxPackage.openStyles();
+                rawNumbers = stylesPart == null;
+                styles = readStyles(stylesPart);
+                sharedStrings = new LazySharedStrings(xlsxPackage.openSharedStrings());
+                sheets = xlsxPackage.getSheets();
+            } catch (IOException | SAXException | ParserConfigurationException | XMLStreamException
+                    | RuntimeException | Error e) {
+                // Truncated or corrupted file is raised rather than read as an empty one.
+                failure = e;
+                allClaimed = true;
+                return;
+            }
+            for (int i = 1; i < workers; i++) {
+                execute(this::parseSheets);
+            }
+            parseSheets();
+        });
+    }
+
+    /**
+     * Parse styles part, or take formats of the same styles from cache.
+     *
+     * @param is styles part, nullable
+     * @return style formats
+     */
+    private StyleFormats readStyles(InputStream is) throws IOException, SAXException, ParserConfigurationException {
+        if (!cacheGlobals || is == null) {
+            return parse(is, new StylesHandler()).toStyleFormats();
+        }
+        byte[] content;
+        try (InputStream part = is) {
+            content = IOUtils.toByteArray(part);
+        }
+        byte[] digest = GlobalsCache.digest().digest(content);
+        StyleFormats cached = GlobalsCache.getStyles(digest);
+        if (cached != null) {
+            return cached;
+        }
+        return GlobalsCache.putStyles(digest,
+                parse(new ByteArrayInputStream(content), new StylesHandler()).toStyleFormats());
+    }
 
-                XSSFReader.SheetIterator iter = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+    /**
+     * Parse workbook part.
+     *
+     * @param is      part content, nullable
+     * @param handler sax handler
+     * @return handler, which is empty if part is absent
+     */
+    private static <H extends DefaultHandler> H parse(InputStream is, H handler)
+            throws IOException, SAXException, ParserConfigurationException {
+        if (is != null) {
+            try (InputStream part = is) {
                 XMLReader xmlReader = SAXHelper.newXMLReader();
-                ContentHandler handler = new XSSFSheetXMLHandler(
-                        xssfReader.getStylesTable(),
-                        null,
-                        new ReadOnlySharedStringsTable(opc),
-                        this,
-                        new DataFormatter(),
-                        false);
                 xmlReader.setContentHandler(handler);
-                while (iter.hasNext()) {
-                    try (InputStream is = iter.next()) {
-                        xmlReader.parse(new InputSource(is));
-                    }
+                xmlReader.parse(new InputSource(part));
+            }
+        }
+        return handler;
+    }
+
+    /**
+     * Parse claimed sheets until all sheets are claimed.
+     */
+    private void parseSheets() {
+        SheetChannel channel;
+        while ((channel = claimSheet()) != null) {
+            try (InputStream is = channel.input) {
+                XMLReader xmlReader = SAXHelper.newXMLReader();
+                channel.producing = channel.free.take(this::isStopped);
+                if (channel.producing == null) {
+                    return;
+                }
+                xmlReader.setContentHandler(new SheetHandler(channel.producing.next(), channel,
+                        this::isProjected, rawNumbers));
+                xmlReader.parse(new InputSource(is));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | SAXException | ParserConfigurationException | RuntimeException | Error e) {
+                // Consumer would wait for unclaimed sheets forever, so claiming ends and read raises it unless
+                // reading is stopped, which also ends parsing by exception.
+                failure = e;
+                synchronized (claimLock) {
+                    allClaimed = true;
                 }
-            } catch (IOException | OpenXML4JException | SAXException | ParserConfigurationException e) {
-                log.info("Read xlsx file failure by sax.", e);
+                return;
+            } finally {
+                channel.finish();
             }
-        }, EXECUTOR);
+        }
     }
 
-    @Override
-    protected void finalize() throws Throwable {
-        super.finalize();
-        IOUtils.closeQuietly(opc);
+    /**
+     * Claim next selected sheet and hand its channel over to consumer.
+     *
+     * @return channel of claimed sheet, null if all sheets are claimed
+     */
+    private SheetChannel claimSheet() {
+        synchronized (claimLock) {
+            if (allClaimed || isStopped()) {
+                return null;
+            }
+            try {
+                while (claimedSheets < sheets.size()) {
+                    XlsxPackage.SheetPart part = sheets.get(claimedSheets++);
+                    Sheet sheet = new Sheet()
+                            .setSheetNo(claimedSheets)
+                            .setSheetName(part.getName());
+                    if (!isSelected(sheet)) {
+                        // Skip sheet without parsing.
+                        continue;
+                    }
+                    SheetChannel channel = new SheetChannel(sheet, xlsxPackage.open(part));
+                    claimedChannels.add(channel);
+                    return channel;
+                }
+            } catch (IOException | RuntimeException e) {
+                // Sheet part missing or out of archive, read raises it once claimed sheets are consumed.
+                failure = e;
+            }
+            allClaimed = true;
+            return null;
+        }
     }
 
+    /**
+     * Estimate rows of selected sheets by their dimension, read from package of its own.
+     *
+     * @return rows estimated
+     */
     @Override
-    @SneakyThrows
-    public T doRead() {
-
-        if (!readFuture.isDone() || !cachedRows.isEmpty()) {
-            List<String> rowCells = cachedRows.take();
-            if (firstRowAsHeader && !headerConfirmed) {
-                headerConfirmed = true;
-                headers.addAll(rowCells);
-                return doRead();
-            }
-            String str = "http://www.baidu.com";
-            return getConverter().convert(headers, rowCells, getParameterizedType());
-        } else {
-            // Delete temp file.
-            Files.deleteIfExists(new File(currentFilePath).toPath());
-            return null;
+    protected long estimateRows() {
+        try {
+            XlsxPackage estimated = new XlsxPackage(archive);
+            List<XlsxPackage.SheetPart> parts = estimated.getSheets();
+            long rows = 0;
+            for (int i = 0; i < parts.size(); i++) {
+                if (!isSelected(new Sheet().setSheetNo(i + 1).setSheetName(parts.get(i).getName()))) {
+                    continue;
+                }
+                int sheetRows = estimated.dimensionRows(parts.get(i));
+                if (sheetRows < 0) {
+                    return Long.MAX_VALUE;
+                }
+                rows += firstRowAsHeader ? Math.max(sheetRows - 1, 0) : sheetRows;
+            }
+            return rows;
+        } catch (IOException | SAXException | ParserConfigurationException | XMLStreamException | RuntimeException e) {
+            log.debug("Estimate xlsx rows failure.", e);
+            return Long.MAX_VALUE;
         }
     }
 
     @Override
-    public void startRow(int rowNum) {
-        rowCells.clear();
+    protected void release() {
+        if (sharedStrings != null) {
+            sharedStrings.close();
+        }
+        archive.close();
     }
 
     @Override
     @SneakyThrows
-    public void endRow(int rowNum) {
-        cachedRows.put(new ArrayList<>(rowCells));
+    protected RowView nextRow() {
+        if (finished || isStopped()) {
+            return null;
+        }
+        if (!started) {
+            startRead();
+        }
+        int idle = 0;
+        next:
+        while (!isStopped()) {
+            boolean claimed = allClaimed;
+            SheetChannel claimedChannel;
+            while ((claimedChannel = claimedChannels.poll()) != null) {
+                channels.add(claimedChannel);
+            }
+            if (channels.isEmpty()) {
+                if (claimed) {
+                    finished = true;
+                    if (failure != null && !isStopped()) {
+                        throw new ExcelReadException("Read xlsx file failure.", failure);
+                    }
+                    return null;
+                }
+                idle = SpscRing.idle(idle);
+                continue;
+            }
+            // Headers come from the first sheet, so it is read alone until they are taken.
+            boolean ordered = inSheetOrder || (firstRowAsHeader && !headerConfirmed);
+            int count = ordered ? 1 : channels.size();
+            for (int i = 0; i < count; i++) {
+                int at = ordered ? 0 : (cursor + i) % channels.size();
+                SheetChannel channel = channels.get(at);
+                boolean sheetFirstRow = !channel.started;
+                RowBuffer row = channel.poll();
+                if (row == null) {
+                    if (channel.drained) {
+                        channels.remove(at);
+                        idle = 0;
+                        continue next;
+                    }
+                    continue;
+                }
+                cursor = at;
+                idle = 0;
+                if (sheetFirstRow && firstRowAsHeader) {
+                    // Only first sheet's first row is taken as headers, other sheet's first row is skipped.
+                    if (!headerConfirmed) {
+                        confirmHeaders(row.toList());
+                    }
+                    continue next;
+                }
+                // Trailing blank cells are left out of sheet xml, rows are as wide as headers anyway.
+                row.padTo(headers.size());
+                return row;
+            }
+            idle = SpscRing.idle(idle);
+        }
+        return null;
     }
 
-    @Override
-    public void cell(String cellReference, String formattedValue, XSSFComment comment) {
-        rowCells.add(formattedValue);
+    /**
+     * SheetChannel: Rows of one sheet from its worker to consumer, filled and recycled batches travel through a pair
+     * of single producer single consumer rings.
+     */
+    private final class SheetChannel implements SheetHandler.RowCallback {
+
+        private final Sheet sheet;
+        private final InputStream input;
+        private final SpscRing<RowBatch> filled;
+        private final SpscRing<RowBatch> free;
+
+        /**
+         * Batch filled by worker.
+         */
+        private RowBatch producing;
+
+        /**
+         * Batch held by consumer and index of its next row, recycled once drained.
+         */
+        private RowBatch consuming;
+        private int index;
+        private boolean started;
+        private boolean drained;
+
+        SheetChannel(Sheet sheet, InputStream input) {
+            this.sheet = sheet;
+            this.input = input;
+            // One batch more than cached for worker and one for consumer.
+            int batches = CACHED_BATCHES + 2;
+            this.filled = new SpscRing<>(batches);
+            this.free = new SpscRing<>(batches);
+            for (int i = 0; i < batches; i++) {
+                free.offer(new RowBatch(batchSize, XlsxReader.this::formatNumber, XlsxReader.this::sharedString));
+            }
+        }
+
+        /**
+         * Commit completed row to producing batch, hand the batch over to consumer once full.
+         *
+         * @param row row buffer of sax handler, which is the last one of producing batch
+         * @return row buffer for next row
+         */
+        @Override
+        @SneakyThrows
+        public RowBuffer endRow(RowBuffer row) {
+            if (isStopped()) {
+                throw new SAXException("Reading is stopped.");
+            }
+            row.setSheet(sheet);
+            if (producing.commit()) {
+                filled.put(producing);
+                // Not a method reference, which can not access protected method of outer super class.
+                producing = free.take(() -> isStopped());
+                if (producing == null) {
+                    throw new SAXException("Reading is stopped.");
+                }
+            }
+            return producing.next();
+        }
+
+        /**
+         * Hand the last batch over and close, called by worker once sheet is parsed or failed.
+         */
+        void finish() {
+            try {
+                if (producing != null && !producing.isEmpty()) {
+                    filled.put(producing);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                filled.close();
+            }
+        }
+
+        /**
+         * Next row without waiting, called by consumer.
+         *
+         * @return row, null if no row is ready or channel is drained
+         */
+        RowBuffer poll() {
+            if (consuming != null) {
+                if (index < consuming.size()) {
+                    return consuming.get(index++);
+                }
+                consuming.clear();
+                free.offer(consuming);
+                consuming = null;
+            }
+            // Closed is read before polling, so rows put before closing are not missed.
+            boolean closed = filled.isClosed();
+            consuming = filled.poll();
+            if (consuming == null) {
+                drained = closed;
+                return null;
+            }
+            started = true;
+            index = 1;
+            return consuming.get(0);
+        }
     }
 
-    @Override
-    public void endSheet() {
+    /**
+     * Resolve shared string.
+     *
+     * @param index index of shared string
+     * @return string
+     */
+    private String sharedString(int index) {
+        return sharedStrings.getEntryAt(index);
     }
 
+    /**
+     * Format numeric cell by data format of its style, like {@link org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler}.
+     *
+     * @param value      raw value
+     * @param styleIndex style index
+     * @return formatted text
+     */
+    private String formatNumber(double value, int styleIndex) {
+        return styles.format(value, styleIndex);
+    }
 }
@@ -0,0 +1,393 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.xssf;
+
+import io.cruder.excellent.AbstractExcelWriter;
+import io.cruder.excellent.exception.ExcelWriteException;
+import io.cruder.excellent.util.CellSink;
+import io.cruder.excellent.util.ExcelDates;
+import org.apache.poi.ss.util.WorkbookUtil;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * io.cruder.excellent.xssf.XlsxWriter: Xlsx writer which streams rows straight into the zipped sheet xml, in place
+ * of {@link org.apache.poi.xssf.streaming.SXSSFWorkbook} which keeps rows on heap and spools them to temporary file.
+ * <p>Rows are encoded into a reusable buffer and deflated once it is full, so memory stays constant. Strings are
+ * written inline, or into a shared strings table written after the sheet, whose size is bounded. Dates are written
+ * as serials with a number format of their pattern.</p>
+ *
+ * @author cruder.io
+ * @since 2020-03-26
+ */
+public class XlsxWriter<T> extends AbstractExcelWriter<T> {
+
+    private static final String SHEET_PART = "xl/worksheets/sheet1.xml";
+    private static final int MAX_ROWS = 1_048_576;
+    private static final int MAX_COLUMNS = 16_384;
+
+    /**
+     * Size of encoded rows deflated at a time, and of buffer of deflated bytes.
+     */
+    private static final int FLUSH_SIZE = 64 * 1024;
+
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String MAIN_NAMESPACE = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String RELATIONSHIP = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.";
+
+    private static final byte[] SHEET_START = XmlBytes.ascii(XML_DECLARATION
+            + "<worksheet xmlns=\"" + MAIN_NAMESPACE + "\"><sheetData>");
+    private static final byte[] SHEET_END = XmlBytes.ascii("</sheetData></worksheet>");
+    private static final byte[] ROW_START = XmlBytes.ascii("<row r=\"");
+    private static final byte[] ROW_END = XmlBytes.ascii("</row>");
+    private static final byte[] CELL_START = XmlBytes.ascii("<c r=\"");
+    private static final byte[] NUMBER_START = XmlBytes.ascii("\"><v>");
+    private static final byte[] STYLED_NUMBER_START = XmlBytes.ascii("\" s=\"");
+    private static final byte[] SHARED_START = XmlBytes.ascii("\" t=\"s\"><v>");
+    private static final byte[] BOOLEAN_TRUE = XmlBytes.ascii("\" t=\"b\"><v>1</v></c>");
+    private static final byte[] BOOLEAN_FALSE = XmlBytes.ascii("\" t=\"b\"><v>0</v></c>");
+    private static final byte[] NOT_NUMBER = XmlBytes.ascii("\" t=\"e\"><v>#NUM!</v></c>");
+    private static final byte[] INLINE_START = XmlBytes.ascii("\" t=\"inlineStr\"><is>");
+    private static final byte[] INLINE_END = XmlBytes.ascii("</is></c>");
+    private static final byte[] VALUE_END = XmlBytes.ascii("</v></c>");
+    private static final byte[] TEXT_START = XmlBytes.ascii("<t>");
+    private static final byte[] TEXT_PRESERVED_START = XmlBytes.ascii("<t xml:space=\"preserve\">");
+    private static final byte[] TEXT_END = XmlBytes.ascii("</t>");
+    private static final byte[] ITEM_START = XmlBytes.ascii("<si>");
+    private static final byte[] ITEM_END = XmlBytes.ascii("</si>");
+    private static final byte[] QUOTE_END = XmlBytes.ascii("\">");
+
+    private static final String CONTENT_TYPES = XML_DECLARATION
+            + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+            + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+            + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+            + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"" + CONTENT_TYPE + "sheet.main+xml\"/>"
+            + "<Override PartName=\"/" + SHEET_PART + "\" ContentType=\"" + CONTENT_TYPE + "worksheet+xml\"/>"
+            + "<Override PartName=\"/xl/styles.xml\" ContentType=\"" + CONTENT_TYPE + "styles+xml\"/>"
+            + "%s</Types>";
+    private static final String SHARED_STRINGS_TYPE = "<Override PartName=\"/xl/sharedStrings.xml\" ContentType=\""
+            + CONTENT_TYPE + "sharedStrings+xml\"/>";
+    private static final String PACKAGE_RELATIONSHIPS = XML_DECLARATION
+            + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+            + "<Relationship Id=\"rId1\" Type=\"" + RELATIONSHIP + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+            + "</Relationships>";
+    private static final String WORKBOOK_RELATIONSHIPS = XML_DECLARATION
+            + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+            + "<Relationship Id=\"rId1\" Type=\"" + RELATIONSHIP + "/worksheet\" Target=\"worksheets/sheet1.xml\"/>"
+            + "<Relationship Id=\"rId2\" Type=\"" + RELATIONSHIP + "/styles\" Target=\"styles.xml\"/>"
+            + "%s</Relationships>";
+    private static final String SHARED_STRINGS_RELATIONSHIP = "<Relationship Id=\"rId3\" Type=\"" + RELATIONSHIP
+            + "/sharedStrings\" Target=\"sharedStrings.xml\"/>";
+    private static final String WORKBOOK_START = XML_DECLARATION
+            + "<workbook xmlns=\"" + MAIN_NAMESPACE + "\" xmlns:r=\"" + RELATIONSHIP + "\"><sheets><sheet name=\"";
+    private static final String WORKBOOK_END = "\" sheetId=\"1\" r:id=\"rId1\"/></sheets></workbook>";
+    private static final String STYLES = XML_DECLARATION
+            + "<styleSheet xmlns=\"" + MAIN_NAMESPACE + "\">"
+            + "%s<fonts count=\"1\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+            + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>"
+            + "<fill><patternFill patternType=\"gray125\"/></fill></fills>"
+            + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+            + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+            + "%s<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>"
+            + "</styleSheet>";
+    private static final String CELL_STYLE = "<xf numFmtId=\"%d\" fontId=\"0\" fillId=\"0\" borderId=\"0\""
+            + " xfId=\"0\"%s/>";
+
+    /**
+     * Id of the first custom number format, ids before are built in.
+     */
+    private static final int FIRST_CUSTOM_FORMAT = 164;
+
+    private final ZipOutputStream zip;
+    private final XmlBytes xml = new XmlBytes();
+    private final SheetCells cells = new SheetCells();
+
+    /**
+     * Column names by index, such as "A", encoded once.
+     */
+    private byte[][] columnNames = new byte[0][];
+
+    /**
+     * Rows written, which is the number of current row.
+     */
+    private int rowNum;
+
+    /**
+     * Buffered length and shared string references where current row starts, rows are flushed only once ended.
+     */
+    private int rowStart;
+    private long rowReferences;
+
+    /**
+     * Index of each shared string in insertion order, null if strings are written inline, and count of references.
+     */
+    private Map<String, Integer> sharedStrings;
+    private long sharedReferences;
+
+    /**
+     * Style index of each date pattern, styles after the default one are date styles in this order.
+     */
+    private final Map<String, Integer> dateStyles = new LinkedHashMap<>();
+
+    /**
+     * Creates a new XLSX writer.
+     *
+     * @param outputStream output of file, closed once writer is closed
+     * @param clazz        generic class, null for rows of map
+     */
+    public XlsxWriter(OutputStream outputStream, Class<T> clazz) {
+        super(clazz);
+        this.zip = new ZipOutputStream(new BufferedOutputStream(outputStream, FLUSH_SIZE));
+        // Rows are deflated as fast as they are encoded, excel itself does not compress much better.
+        this.zip.setLevel(Deflater.BEST_SPEED);
+    }
+
+    @Override
+    protected void startSheet() throws IOException {
+        WorkbookUtil.validateSheetName(sheetName);
+        if (sharedStringCapacity > 0) {
+            sharedStrings = new HashMap<>();
+        }
+        zip.putNextEntry(new ZipEntry(SHEET_PART));
+        xml.write(SHEET_START);
+    }
+
+    @Override
+    protected CellSink startRow() {
+        if (rowNum == MAX_ROWS) {
+            throw new ExcelWriteException(String.format("Sheet holds at most %d rows.", MAX_ROWS));
+        }
+        rowNum++;
+        cells.column = 0;
+        rowStart = xml.length();
+        rowReferences = sharedReferences;
+        xml.write(ROW_START).digits(rowNum).write(QUOTE_END);
+        return cells;
+    }
+
+    @Override
+    protected void endRow() throws IOException {
+        xml.write(ROW_END);
+        if (xml.length() >= FLUSH_SIZE) {
+            xml.flushTo(zip);
+        }
+    }
+
+    @Override
+    protected void abortRow() {
+        // Strings shared by the row stay in the table unreferenced, which is still valid.
+        xml.truncate(rowStart);
+        sharedReferences = rowReferences;
+        rowNum--;
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        try {
+            xml.write(SHEET_END).flushTo(zip);
+            zip.closeEntry();
+            boolean shared = sharedStrings != null;
+            if (shared) {
+                writeSharedStrings();
+            }
+            writeEntry("xl/styles.xml", styles());
+            writeEntry("xl/workbook.xml", WORKBOOK_START);
+            xml.text(sheetName).write(XmlBytes.ascii(WORKBOOK_END)).flushTo(zip);
+            writeEntry("xl/_rels/workbook.xml.rels",
+                    String.format(WORKBOOK_RELATIONSHIPS, shared ? SHARED_STRINGS_RELATIONSHIP : ""));
+            writeEntry("_rels/.rels", PACKAGE_RELATIONSHIPS);
+            writeEntry("[Content_Types].xml", String.format(CONTENT_TYPES, shared ? SHARED_STRINGS_TYPE : ""));
+            zip.finish();
+        } finally {
+            zip.close();
+        }
+    }
+
+    /**
+     * Styles of workbook, with a date style of each pattern written.
+     */
+    private String styles() {
+        StringBuilder formats = new StringBuilder();
+        StringBuilder cellStyles = new StringBuilder(String.format(CELL_STYLE, 0, ""));
+        int formatId = FIRST_CUSTOM_FORMAT;
+        for (String pattern : dateStyles.keySet()) {
+            formats.append("<numFmt numFmtId=\"").append(formatId).append("\" formatCode=\"")
+                    .append(escape(ExcelDates.excelFormat(pattern))).append("\"/>");
+            cellStyles.append(String.format(CELL_STYLE, formatId++, " applyNumberFormat=\"1\""));
+        }
+        String numberFormats = dateStyles.isEmpty() ? ""
+                : "<numFmts count=\"" + dateStyles.size() + "\">" + formats + "</numFmts>";
+        return String.format(STYLES, numberFormats,
+                "<cellXfs count=\"" + (dateStyles.size() + 1) + "\">" + cellStyles + "</cellXfs>");
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("\"", "&quot;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    /**
+     * Write shared strings in order of their index.
+     */
+    private void writeSharedStrings() throws IOException {
+        String[] strings = new String[sharedStrings.size()];
+        sharedStrings.forEach((string, index) -> strings[index] = string);
+        // Table is no longer needed, strings are dropped as they are written.
+        sharedStrings.clear();
+        zip.putNextEntry(new ZipEntry("xl/sharedStrings.xml"));
+        xml.write(XmlBytes.ascii(XML_DECLARATION + "<sst xmlns=\"" + MAIN_NAMESPACE + "\" count=\""))
+                .digits(sharedReferences)
+                .write(XmlBytes.ascii("\" uniqueCount=\""))
+                .digits(strings.length)
+                .write(QUOTE_END);
+        for (int i = 0; i < strings.length; i++) {
+            xml.write(ITEM_START);
+            writeText(strings[i]);
+            xml.write(ITEM_END);
+            strings[i] = null;
+            if (xml.length() >= FLUSH_SIZE) {
+                xml.flushTo(zip);
+            }
+        }
+        xml.write(XmlBytes.ascii("</sst>")).flushTo(zip);
+        zip.closeEntry();
+    }
+
+    /**
+     * Start entry and write head of its content, entry is closed by next one.
+     */
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(XmlBytes.ascii(content));
+    }
+
+    private void writeText(String text) {
+        boolean preserved = !text.isEmpty()
+                && (Character.isWhitespace(text.charAt(0)) || Character.isWhitespace(text.charAt(text.length() - 1)));
+        xml.write(preserved ? TEXT_PRESERVED_START : TEXT_START).text(text).write(TEXT_END);
+    }
+
+    /**
+     * Name of column, such as "A" for 0 and "AA" for 26.
+     */
+    private byte[] columnName(int column) {
+        if (column >= columnNames.length) {
+            if (column >= MAX_COLUMNS) {
+                throw new ExcelWriteException(String.format("Sheet holds at most %d columns.", MAX_COLUMNS));
+            }
+            byte[][] grown = new byte[Math.min(Math.max(column + 1, columnNames.length << 1), MAX_COLUMNS)][];
+            System.arraycopy(columnNames, 0, grown, 0, columnNames.length);
+            for (int i = columnNames.length; i < grown.length; i++) {
+                StringBuilder name = new StringBuilder();
+                for (int rest = i + 1; rest > 0; rest = (rest - 1) / 26) {
+                    name.insert(0, (char) ('A' + (rest - 1) % 26));
+                }
+                grown[i] = XmlBytes.ascii(name.toString());
+            }
+            columnNames = grown;
+        }
+        return columnNames[column];
+    }
+
+    /**
+     * SheetCells: Cells of current row, written into sheet xml with their reference.
+     *
+     * @author cruder.io
+     * @since 2020-03-26
+     */
+    private final class SheetCells implements CellSink {
+
+        private int column;
+
+        /**
+         * Start cell, up to the closing quote of its reference.
+         */
+        private void startCell() {
+            xml.write(CELL_START).write(columnName(column++)).digits(rowNum);
+        }
+
+        @Override
+        public void blank() {
+            // Blank cell is not written, position of cells after it is kept by their reference.
+            column++;
+        }
+
+        @Override
+        public void text(String text) {
+            Integer index = sharedStrings == null ? null : share(text);
+            startCell();
+            if (index != null) {
+                sharedReferences++;
+                xml.write(SHARED_START).digits(index).write(VALUE_END);
+            } else {
+                xml.write(INLINE_START);
+                writeText(text);
+                xml.write(INLINE_END);
+            }
+        }
+
+        private Integer share(String text) {
+            Integer index = sharedStrings.get(text);
+            if (index == null && sharedStrings.size() < sharedStringCapacity) {
+                index = sharedStrings.size();
+                sharedStrings.put(text, index);
+            }
+            return index;
+        }
+
+        @Override
+        public void number(double number) {
+            startCell();
+            if (Double.isNaN(number) || Double.isInfinite(number)) {
+                xml.write(NOT_NUMBER);
+                return;
+            }
+            xml.write(NUMBER_START).number(number).write(VALUE_END);
+        }
+
+        @Override
+        public void date(LocalDateTime dateTime, String pattern) {
+            double serial = ExcelDates.toSerial(dateTime);
+            if (Double.isNaN(serial)) {
+                // Date before day 0 of excel is kept as text.
+                text(ExcelDates.formatter(pattern).format(dateTime));
+                return;
+            }
+            Integer style = dateStyles.get(pattern);
+            if (style == null) {
+                style = dateStyles.size() + 1;
+                dateStyles.put(pattern, style);
+            }
+            startCell();
+            xml.write(STYLED_NUMBER_START).digits(style).write(NUMBER_START).number(serial).write(VALUE_END);
+        }
+
+        @Override
+        public void bool(boolean value) {
+            startCell();
+            xml.write(value ? BOOLEAN_TRUE : BOOLEAN_FALSE);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.xssf;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * io.cruder.excellent.xssf.XmlBytes: Reusable buffer of xml encoded as UTF-8 bytes, which text is escaped into
+ * without going through {@link java.io.Writer} or intermediate strings.
+ *
+ * @author cruder.io
+ * @since 2020-03-26
+ */
+final class XmlBytes {
+
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    private static final byte[] LT = ascii("&lt;");
+    private static final byte[] GT = ascii("&gt;");
+    private static final byte[] AMP = ascii("&amp;");
+    private static final byte[] QUOT = ascii("&quot;");
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+
+    /**
+     * Digits of long in reverse, reused.
+     */
+    private final byte[] digits = new byte[20];
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int length;
+
+    /**
+     * @param text ascii text, such as markup
+     * @return bytes of text
+     */
+    static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * @return count of bytes buffered
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * Drop bytes buffered after length.
+     *
+     * @param length count of bytes kept, at most buffered bytes
+     */
+    void truncate(int length) {
+        this.length = length;
+    }
+
+    /**
+     * Append raw bytes, such as markup.
+     *
+     * @param raw bytes
+     * @return this
+     */
+    XmlBytes write(byte[] raw) {
+        ensure(raw.length);
+        System.arraycopy(raw, 0, bytes, length, raw.length);
+        length += raw.length;
+        return this;
+    }
+
+    /**
+     * Append decimal digits of number.
+     *
+     * @param number number
+     * @return this
+     */
+    XmlBytes digits(long number) {
+        ensure(digits.length + 1);
+        if (number == Long.MIN_VALUE) {
+            return write(ascii(Long.toString(number)));
+        }
+        long rest = number;
+        if (rest < 0) {
+            bytes[length++] = '-';
+            rest = -rest;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + rest % 10);
+            rest /= 10;
+        } while (rest != 0);
+        while (count > 0) {
+            bytes[length++] = digits[--count];
+        }
+        return this;
+    }
+
+    /**
+     * Append number as xml double, whole numbers without fraction.
+     *
+     * @param number finite number
+     * @return this
+     */
+    XmlBytes number(double number) {
+        long whole = (long) number;
+        if (whole == number && Math.abs(whole) < 1_000_000_000_000_000L) {
+            return digits(whole);
+        }
+        String text = Double.toString(number);
+        ensure(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            bytes[length++] = (byte) text.charAt(i);
+        }
+        return this;
+    }
+
+    /**
+     * Append text escaped for element content or attribute value. Chars which xml can not hold are written as
+     * {@code _xHHHH_} as excel does, and so is the underscore starting text of that form.
+     *
+     * @param text text
+     * @return this
+     */
+    XmlBytes text(String text) {
+        int size = text.length();
+        // Escaped char takes 7 bytes at most.
+        ensure(size * 7);
+        for (int i = 0; i < size; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                switch (c) {
+                    case '<':
+                        put(LT);
+                        break;
+                    case '>':
+                        put(GT);
+                        break;
+                    case '&':
+                        put(AMP);
+                        break;
+                    case '"':
+                        put(QUOT);
+                        break;
+                    case '_':
+                        if (isEscapeAt(text, i)) {
+                            putEscape(c);
+                        } else {
+                            bytes[length++] = (byte) c;
+                        }
+                        break;
+                    default:
+                        if (c < 0x20 && c != '\t' && c != '\n' && c != '\r') {
+                            putEscape(c);
+                        } else {
+                            bytes[length++] = (byte) c;
+                        }
+                        break;
+                }
+            } else if (c < 0x800) {
+                bytes[length++] = (byte) (0xC0 | c >> 6);
+                bytes[length++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < size && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                bytes[length++] = (byte) (0xF0 | codePoint >> 18);
+                bytes[length++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                bytes[length++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                bytes[length++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c) || c == 0xFFFE || c == 0xFFFF) {
+                putEscape(c);
+            } else {
+                bytes[length++] = (byte) (0xE0 | c >> 12);
+                bytes[length++] = (byte) (0x80 | c >> 6 & 0x3F);
+                bytes[length++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Write buffered bytes and empty buffer.
+     *
+     * @param out output
+     * @throws IOException if output fails
+     */
+    void flushTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, length);
+        length = 0;
+    }
+
+    private static boolean isEscapeAt(String text, int index) {
+        if (index + 6 >= text.length() || text.charAt(index + 1) != 'x' || text.charAt(index + 6) != '_') {
+            return false;
+        }
+        for (int i = index + 2; i < index + 6; i++) {
+            if (Character.digit(text.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void putEscape(char c) {
+        bytes[length++] = '_';
+        bytes[length++] = 'x';
+        bytes[length++] = HEX[c >> 12 & 0xF];
+        bytes[length++] = HEX[c >> 8 & 0xF];
+        bytes[length++] = HEX[c >> 4 & 0xF];
+        bytes[length++] = HEX[c & 0xF];
+        bytes[length++] = '_';
+    }
+
+    private void put(byte[] raw) {
+        System.arraycopy(raw, 0, bytes, length, raw.length);
+        length += raw.length;
+    }
+
+    private void ensure(int more) {
+        if (length + more > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, length + more));
+        }
+    }
+}
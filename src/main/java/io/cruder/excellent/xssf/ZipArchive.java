@@ -0,0 +1,392 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent.xssf;
+
+import io.cruder.excellent.exception.ExcelReadException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.util.IOUtils;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * io.cruder.excellent.xssf.ZipArchive: Zip archive read from its central directory over a memory mapped buffer,
+ * entries are inflated straight from the buffer, in place of {@link org.apache.poi.openxml4j.opc.OPCPackage} which
+ * needs a file.
+ * <p>Entries can be opened by several threads at the same time. Offsets and sizes of archive are checked against the
+ * buffer, so that truncated or corrupted archive raises {@link ExcelReadException}.</p>
+ * <p>Archive is closed once no entry is read any more, mapping is released at once rather than at garbage
+ * collection, so that file is not held open, which locks it on Windows.</p>
+ *
+ * @author cruder.io
+ * @since 2020-03-24
+ */
+@Slf4j
+final class ZipArchive implements Closeable {
+
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int CENTRAL_SIGNATURE = 0x02014b50;
+    private static final int LOCAL_SIGNATURE = 0x04034b50;
+    private static final int END_LENGTH = 22;
+    private static final int CENTRAL_LENGTH = 46;
+    private static final int LOCAL_LENGTH = 30;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+    private static final int UTF8_FLAG = 1 << 11;
+    private static final int INFLATE_BUFFER = 8 * 1024;
+
+    /**
+     * Unmap mapped buffer at once, does nothing if JDK offers no way, leaving it to garbage collection.
+     */
+    private static final Consumer<MappedByteBuffer> UNMAPPER = unmapper();
+
+    private final ByteBuffer buffer;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Mapping and spooled file of archive, null if there is none.
+     */
+    private MappedByteBuffer mapped;
+    private FileChannel spooled;
+    private volatile boolean closed;
+
+    ZipArchive(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        readCentralDirectory();
+        if (buffer instanceof MappedByteBuffer) {
+            this.mapped = (MappedByteBuffer) buffer;
+        }
+    }
+
+    /**
+     * Map file into memory.
+     *
+     * @param path file path
+     * @return archive
+     * @throws IOException if file can not be read
+     */
+    static ZipArchive map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return map(channel);
+        }
+    }
+
+    /**
+     * Map channel into memory, mapping stays valid after channel is closed.
+     *
+     * @param channel file channel
+     * @return archive
+     * @throws IOException if channel can not be read
+     */
+    static ZipArchive map(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Zip archive larger than 2GB is not supported.");
+        }
+        return new ZipArchive(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+    }
+
+    /**
+     * Spool stream into a temporary file and map it into memory, stream is read to its end but not closed. File is
+     * deleted once archive is closed.
+     *
+     * @param inputStream input stream
+     * @return archive
+     * @throws IOException if stream can not be read or spooled
+     */
+    static ZipArchive read(InputStream inputStream) throws IOException {
+        Path file = Files.createTempFile("excel-lent-xlsx", ".tmp");
+        try {
+            Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.DELETE_ON_CLOSE);
+        try {
+            ZipArchive archive = map(channel);
+            archive.spooled = channel;
+            return archive;
+        } catch (IOException | RuntimeException e) {
+            IOUtils.closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    /**
+     * Unmap archive and delete its spooled file. Entries must not be read any more, no entry can be opened after.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (mapped != null) {
+            UNMAPPER.accept(mapped);
+            mapped = null;
+        }
+        IOUtils.closeQuietly(spooled);
+        spooled = null;
+    }
+
+    /**
+     * Resolve unmapper, by {@code Unsafe.invokeCleaner} since Java 9, or by cleaner of buffer before.
+     */
+    private static Consumer<MappedByteBuffer> unmapper() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Object unsafe = theUnsafe.get(null);
+            return buffer -> invoke(invokeCleaner, unsafe, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.trace("Unsafe.invokeCleaner is not available.", e);
+        }
+        try {
+            Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+            Method clean = cleaner.getReturnType().getMethod("clean");
+            return buffer -> invoke(clean, invoke(cleaner, buffer));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.debug("Mapped buffers are not unmapped until garbage collected.", e);
+            return buffer -> {
+            };
+        }
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return target == null ? null : method.invoke(target, args);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.debug("Unmap buffer failure.", e);
+            return null;
+        }
+    }
+
+    private void readCentralDirectory() {
+        int end = findEnd();
+        int count = u16(end + 10);
+        long offset = u32(end + 16);
+        if (count == 0xFFFF || offset == 0xFFFFFFFFL) {
+            throw new ExcelReadException("Zip64 archive is not supported.");
+        }
+        if (offset > end) {
+            throw new ExcelReadException("Corrupted zip central directory.");
+        }
+        int position = (int) offset;
+        for (int i = 0; i < count; i++) {
+            if (position + CENTRAL_LENGTH > end || buffer.getInt(position) != CENTRAL_SIGNATURE) {
+                throw new ExcelReadException("Corrupted zip central directory.");
+            }
+            int flags = u16(position + 8);
+            int method = u16(position + 10);
+            long compressedSize = u32(position + 20);
+            int nameLength = u16(position + 28);
+            int extraLength = u16(position + 30);
+            int commentLength = u16(position + 32);
+            long localOffset = u32(position + 42);
+            if (position + CENTRAL_LENGTH + nameLength > end || localOffset + LOCAL_LENGTH > offset) {
+                throw new ExcelReadException("Corrupted zip central directory.");
+            }
+            byte[] name = new byte[nameLength];
+            ByteBuffer nameBuffer = buffer.duplicate();
+            nameBuffer.position(position + CENTRAL_LENGTH);
+            nameBuffer.get(name);
+            String entryName = new String(name,
+                    (flags & UTF8_FLAG) != 0 ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+            entries.put(entryName, new Entry(method, compressedSize, localOffset));
+            position += CENTRAL_LENGTH + nameLength + extraLength + commentLength;
+        }
+    }
+
+    /**
+     * Find end of central directory record, which is followed by comment of at most 64K.
+     */
+    private int findEnd() {
+        int last = buffer.limit() - END_LENGTH;
+        int first = Math.max(0, last - MAX_COMMENT_LENGTH);
+        for (int position = last; position >= first; position--) {
+            if (buffer.getInt(position) == END_SIGNATURE) {
+                return position;
+            }
+        }
+        throw new ExcelReadException("Not a zip archive, end of central directory is not found.");
+    }
+
+    private int u16(int position) {
+        return buffer.getShort(position) & 0xFFFF;
+    }
+
+    private long u32(int position) {
+        return buffer.getInt(position) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * @param name entry name
+     * @return true if entry exists
+     */
+    boolean contains(String name) {
+        return entries.containsKey(name);
+    }
+
+    /**
+     * Open entry for reading.
+     *
+     * @param name entry name
+     * @return uncompressed content
+     * @throws IOException if entry does not exist or is compressed by unsupported method
+     * @throws ExcelReadException if entry is out of archive
+     */
+    InputStream open(String name) throws IOException {
+        if (closed) {
+            throw new IOException("Zip archive is closed.");
+        }
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            throw new FileNotFoundException(String.format("Zip entry [%s] is not found.", name));
+        }
+        // Local header is checked to be before central directory, data of entry is checked here.
+        int local = (int) entry.localOffset;
+        int data = local + LOCAL_LENGTH + u16(local + 26) + u16(local + 28);
+        if (buffer.getInt(local) != LOCAL_SIGNATURE || data + entry.compressedSize > buffer.limit()) {
+            throw new ExcelReadException(String.format("Corrupted zip entry [%s].", name));
+        }
+        ByteBuffer content = buffer.duplicate();
+        content.limit(data + (int) entry.compressedSize).position(data);
+        content = content.slice();
+        switch (entry.method) {
+            case ZipEntry.STORED:
+                return new BufferInputStream(content);
+            case ZipEntry.DEFLATED:
+                return new EntryInflaterInputStream(new BufferInputStream(content));
+            default:
+                throw new IOException(String.format("Zip entry [%s] compressed by method %d is not supported.",
+                        name, entry.method));
+        }
+    }
+
+    /**
+     * Entry: Located entry of central directory.
+     */
+    private static final class Entry {
+        private final int method;
+        private final long compressedSize;
+        private final long localOffset;
+
+        Entry(int method, long compressedSize, long localOffset) {
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.localOffset = localOffset;
+        }
+    }
+
+    /**
+     * BufferInputStream: Input stream over remaining bytes of a buffer.
+     */
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int read = Math.min(len, buffer.remaining());
+            buffer.get(b, off, read);
+            return read;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    /**
+     * EntryInflaterInputStream: Raw deflate stream, which owns its inflater and feeds it a dummy byte at the end as
+     * {@link java.util.zip.ZipFile} does.
+     */
+    private static final class EntryInflaterInputStream extends InflaterInputStream {
+        private boolean eof;
+        private boolean closed;
+
+        EntryInflaterInputStream(InputStream in) {
+            super(in, new Inflater(true), INFLATE_BUFFER);
+        }
+
+        @Override
+        protected void fill() throws IOException {
+            if (eof) {
+                throw new EOFException("Unexpected end of zip entry.");
+            }
+            len = in.read(buf, 0, buf.length);
+            if (len == -1) {
+                buf[0] = 0;
+                len = 1;
+                eof = true;
+            }
+            inf.setInput(buf, 0, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                inf.end();
+                super.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * TestCancel: Parse tasks run on executor of reader, cancel of another thread stops reads and parse tasks.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public class TestCancel {
+
+    @ClassRule
+    public static final TemporaryFolder FOLDER = new TemporaryFolder();
+
+    private static List<File> files;
+
+    @BeforeClass
+    public static void writeWorkbooks() throws IOException {
+        files = Arrays.asList(Workbooks.write(new HSSFWorkbook(), FOLDER.newFile("cancel.xls")),
+                Workbooks.write(new XSSFWorkbook(), FOLDER.newFile("cancel.xlsx")));
+    }
+
+    /**
+     * Executor which runs each task on a new thread and keeps the threads.
+     */
+    private static final class ThreadPerTask implements Executor {
+
+        private final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void execute(Runnable task) {
+            Thread thread = new Thread(task, "test-parse-" + threads.size());
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        private void join() throws InterruptedException {
+            for (Thread thread : threads) {
+                thread.join(10000);
+                assertFalse(thread.getName() + " is running.", thread.isAlive());
+            }
+        }
+    }
+
+    @Test
+    public void parseTasksRunOnExecutor() throws InterruptedException {
+        for (File file : files) {
+            ThreadPerTask executor = new ThreadPerTask();
+            assertEquals(file.getName(), Workbooks.read(file, UnaryOperator.identity()),
+                    Workbooks.read(file, reader -> reader.executor(executor).readAhead()));
+            assertFalse(file.getName(), executor.threads.isEmpty());
+            executor.join();
+        }
+    }
+
+    @Test
+    public void cancelOfAnotherThreadStopsReading() throws InterruptedException {
+        for (File file : files) {
+            for (boolean parallelSheets : new boolean[]{false, true}) {
+                ThreadPerTask executor = new ThreadPerTask();
+                Reader<Map<String, String>> reader = Excel.lent(file).firstRowAsHeader().executor(executor)
+                        .readAhead().parallelSheets(parallelSheets);
+                AtomicInteger rows = new AtomicInteger();
+                reader.forEachRow(row -> {
+                    if (rows.incrementAndGet() == 100) {
+                        Thread canceller = new Thread(reader::cancel);
+                        canceller.start();
+                        try {
+                            canceller.join();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                });
+                assertEquals(file.getName(), 100, rows.get());
+                assertFalse(file.getName(), reader.readRow().isPresent());
+                // Parse tasks blocked by batches nobody takes are stopped.
+                executor.join();
+            }
+        }
+    }
+
+    @Test
+    public void cancelWakesReadWaitingForRows() throws InterruptedException {
+        for (File file : files) {
+            // Parse task never runs, so read waits for rows until cancelled.
+            Reader<Map<String, String>> reader = Excel.lent(file).firstRowAsHeader().executor(task -> {
+            }).readAhead();
+            Thread canceller = new Thread(() -> {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                reader.cancel();
+            });
+            canceller.start();
+            assertFalse(file.getName(), reader.readRow().isPresent());
+            canceller.join();
+            assertEquals(file.getName(), 0, reader.stream().count());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * TestClose: Close stops parse tasks before it returns and releases files, reads after close return no row.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public class TestClose {
+
+    @ClassRule
+    public static final TemporaryFolder FOLDER = new TemporaryFolder();
+
+    private static final Path FDS = Paths.get("/proc/self/fd");
+    private static final Path MAPS = Paths.get("/proc/self/maps");
+    private static final String SPOOLED = "excel-lent-xlsx";
+
+    private static List<File> files;
+
+    @BeforeClass
+    public static void writeWorkbooks() throws IOException {
+        files = Arrays.asList(Workbooks.write(new HSSFWorkbook(), FOLDER.newFile("close.xls")),
+                Workbooks.write(new XSSFWorkbook(), FOLDER.newFile("close.xlsx")));
+    }
+
+    @Test
+    public void closeStopsParseTasks() throws InterruptedException {
+        for (File file : files) {
+            for (boolean parallelSheets : new boolean[]{false, true}) {
+                List<Thread> threads = new ArrayList<>();
+                Reader<Map<String, String>> reader = Excel.lent(file).firstRowAsHeader().readAhead()
+                        .parallelSheets(parallelSheets).executor(task -> {
+                            Thread thread = new Thread(task);
+                            thread.setDaemon(true);
+                            threads.add(thread);
+                            thread.start();
+                        });
+                try (Reader<Map<String, String>> closed = reader) {
+                    assertTrue(file.getName(), closed.readRow().isPresent());
+                }
+                for (Thread thread : threads) {
+                    // Close waits for tasks to leave, their threads end right after.
+                    thread.join(1000);
+                    assertFalse(file.getName() + " parallel " + parallelSheets, thread.isAlive());
+                }
+                assertFalse(file.getName(), reader.readRow().isPresent());
+                assertEquals(file.getName(), 0, reader.stream().count());
+            }
+        }
+    }
+
+    @Test
+    public void closeReleasesSpooledFile() throws IOException {
+        // Spooled file is unlinked once opened, what holds it is only seen from mappings and descriptors.
+        Assume.assumeTrue(Files.isDirectory(FDS));
+        File xlsx = files.get(1);
+        Set<String> spooled;
+        Set<String> before = spooledFiles();
+        try (InputStream in = Files.newInputStream(xlsx.toPath());
+             Reader<Map<String, String>> reader = Excel.lent(in).firstRowAsHeader()) {
+            assertTrue(reader.readRow().isPresent());
+            spooled = spooledFiles();
+            spooled.removeAll(before);
+            assertFalse(spooled.isEmpty());
+        }
+        spooled.retainAll(spooledFiles());
+        assertEquals(Collections.emptySet(), spooled);
+    }
+
+    /**
+     * @return files which xlsx streams are spooled to, and are mapped or open
+     */
+    private static Set<String> spooledFiles() throws IOException {
+        Set<String> spooled = new HashSet<>();
+        for (String mapping : Files.readAllLines(MAPS)) {
+            int at = mapping.indexOf('/');
+            if (mapping.contains(SPOOLED) && at >= 0) {
+                spooled.add(mapping.substring(at));
+            }
+        }
+        try (DirectoryStream<Path> fds = Files.newDirectoryStream(FDS)) {
+            for (Path fd : fds) {
+                try {
+                    String file = Files.readSymbolicLink(fd).toString();
+                    if (file.contains(SPOOLED)) {
+                        spooled.add(file);
+                    }
+                } catch (IOException e) {
+                    // Descriptor is closed since listed.
+                }
+            }
+        }
+        return spooled;
+    }
+}
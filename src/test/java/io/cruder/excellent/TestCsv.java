@@ -0,0 +1,169 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import io.cruder.excellent.exception.FileNotSupportedException;
+import io.cruder.excellent.util.ExcelTypeEnum;
+import lombok.Data;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * TestCsv: Rows written to csv and tsv read back as they are, numbers are written in plain digits.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public class TestCsv {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<Map<String, String>> read(Path path) {
+        try (Reader<Map<String, String>> reader = Excel.lent(path).firstRowAsHeader()) {
+            return reader.stream().collect(Collectors.toList());
+        }
+    }
+
+    private static Map<String, Object> row(Object... entries) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            row.put((String) entries[i], entries[i + 1]);
+        }
+        return row;
+    }
+
+    @Test
+    public void beansRoundTrip() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("ledger.csv");
+        try (Writer<TestXlsxWriter.Ledger> writer = Excel.writer(path, TestXlsxWriter.Ledger.class)) {
+            TestXlsxWriter.LEDGERS.forEach(writer::write);
+        }
+        try (Reader<TestXlsxWriter.Ledger> reader = Excel.lent(path, TestXlsxWriter.Ledger.class)
+                .firstRowAsHeader()) {
+            assertEquals(TestXlsxWriter.LEDGERS, reader.stream().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void numbersAreWrittenInPlainDigits() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("numbers.csv");
+        try (Writer<Map<String, ?>> writer = Excel.writer(path)) {
+            writer.write(row("long", 1234567890123456789L, "decimal", new BigDecimal("1234.50"), "small", 1e-7,
+                    "large", 1e20, "float", 0.1f, "whole", 3.0, "text", "x", "blank", null));
+        }
+        assertEquals(Arrays.asList("long,decimal,small,large,float,whole,text,blank",
+                "1234567890123456789,1234.50,0.0000001,100000000000000000000,0.1,3,x,"),
+                Files.readAllLines(path, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void tsvIsDelimitedByTab() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("rows.tsv");
+        try (Writer<Map<String, ?>> writer = Excel.writer(path)) {
+            writer.write(row("code", "a,b", "note", "tab\tin"));
+        }
+        assertEquals(Arrays.asList("code\tnote", "a,b\t\"tab\tin\""), Files.readAllLines(path, StandardCharsets.UTF_8));
+        assertEquals(Arrays.asList(row("code", "a,b", "note", "tab\tin")), read(path));
+    }
+
+    @Test
+    public void typeIsTakenFromNameOrGiven() throws IOException {
+        Path csv = folder.getRoot().toPath().resolve("rows.csv");
+        Files.write(csv, "code\na\n".getBytes(StandardCharsets.UTF_8));
+        Path txt = folder.getRoot().toPath().resolve("rows.txt");
+        Files.copy(csv, txt);
+        try {
+            Excel.lent(txt);
+            fail("Text of unknown type is read.");
+        } catch (FileNotSupportedException e) {
+            // Text is told from its name only, as it has no magic.
+        }
+        try (InputStream in = Files.newInputStream(txt);
+             Reader<Coded> reader = Excel.lent(in, ExcelTypeEnum.CSV, Coded.class).firstRowAsHeader()) {
+            assertEquals("a", reader.readRow().map(Coded::getCode).orElse(null));
+        }
+        assertEquals(Arrays.asList(row("code", "a")), read(csv));
+    }
+
+    @Test
+    public void skipLimitAndFilter() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("rows.csv");
+        List<String> codes = new ArrayList<>();
+        try (Writer<Map<String, ?>> writer = Excel.writer(path)) {
+            for (int i = 0; i < 500; i++) {
+                codes.add("c" + i);
+                writer.write(row("no", i, "code", "c" + i));
+            }
+        }
+        List<String> filtered = codes.stream().filter(code -> code.endsWith("7")).skip(3).limit(4)
+                .collect(Collectors.toList());
+        try (Reader<Map<String, String>> reader = Excel.lent(path).firstRowAsHeader().skip(10).limit(5)) {
+            assertEquals(codes.subList(10, 15), reader.stream().map(row -> row.get("code"))
+                    .collect(Collectors.toList()));
+        }
+        try (Reader<Map<String, String>> reader = Excel.lent(path).firstRowAsHeader()
+                .filter(row -> row.getString(1).endsWith("7")).skip(3).limit(4).parallelConvert(2, true)) {
+            assertEquals(filtered, reader.stream().map(row -> row.get("code")).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void failedRecordIsDropped() throws IOException {
+        Object broken = new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException("Encode failure.");
+            }
+        };
+        Path path = folder.getRoot().toPath().resolve("failed.csv");
+        try (Writer<Map<String, ?>> writer = Excel.writer(path)) {
+            writer.write(row("code", "a", "note", "first"));
+            try {
+                writer.write(row("code", "dropped", "note", broken));
+                fail("Row failed to encode is written.");
+            } catch (IllegalStateException e) {
+                // Fields written before the failure are dropped.
+            }
+            writer.write(row("code", "b", "note", "second"));
+        }
+        assertEquals(Arrays.asList("code,note", "a,first", "b,second"),
+                Files.readAllLines(path, StandardCharsets.UTF_8));
+    }
+
+    @Data
+    public static class Coded {
+        @ExcelColumn(title = "code")
+        private String code;
+    }
+}
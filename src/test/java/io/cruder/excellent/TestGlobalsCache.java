@@ -0,0 +1,124 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import io.cruder.excellent.util.GlobalsCache;
+import io.cruder.excellent.util.StyleFormats;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.zip.ZipFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * TestGlobalsCache: Rows read with cached globals equal rows read without, styles are cached by digest of their
+ * content within capacity.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public class TestGlobalsCache {
+
+    @ClassRule
+    public static final TemporaryFolder FOLDER = new TemporaryFolder();
+
+    private static File xls;
+    private static File xlsx;
+
+    @BeforeClass
+    public static void writeWorkbooks() throws IOException {
+        xls = Workbooks.write(new HSSFWorkbook(), FOLDER.newFile("globals.xls"));
+        xlsx = Workbooks.write(new XSSFWorkbook(), FOLDER.newFile("globals.xlsx"));
+    }
+
+    @After
+    public void resetCache() {
+        GlobalsCache.setCapacity(GlobalsCache.DEFAULT_CAPACITY);
+        GlobalsCache.clear();
+    }
+
+    /**
+     * @return digest of styles part of xlsx
+     */
+    private static byte[] stylesDigest() throws IOException {
+        try (ZipFile zip = new ZipFile(xlsx); InputStream styles = zip.getInputStream(zip.getEntry("xl/styles.xml"))) {
+            return GlobalsCache.digest().digest(IOUtils.toByteArray(styles));
+        }
+    }
+
+    @Test
+    public void cachedReadEqualsUncached() {
+        for (File file : Arrays.asList(xls, xlsx)) {
+            List<Map<String, String>> expected = Workbooks.read(file, UnaryOperator.identity());
+            // The first read fills cache, the second one takes from it.
+            assertEquals(file.getName(), expected, Workbooks.read(file, Reader::cacheGlobals));
+            assertEquals(file.getName(), expected, Workbooks.read(file, Reader::cacheGlobals));
+            assertEquals(file.getName(), expected,
+                    Workbooks.read(file, reader -> reader.cacheGlobals().parallelSheets(true)));
+        }
+    }
+
+    @Test
+    public void xlsxStylesAreCachedOnlyIfAsked() throws IOException {
+        byte[] digest = stylesDigest();
+        Workbooks.read(xlsx, UnaryOperator.identity());
+        assertNull(GlobalsCache.getStyles(digest));
+        Workbooks.read(xlsx, Reader::cacheGlobals);
+        StyleFormats cached = GlobalsCache.getStyles(digest);
+        assertNotNull(cached);
+        Workbooks.read(xlsx, Reader::cacheGlobals);
+        assertSame(cached, GlobalsCache.getStyles(digest));
+    }
+
+    @Test
+    public void zeroCapacityDisablesCache() throws IOException {
+        GlobalsCache.setCapacity(0);
+        assertEquals(Workbooks.read(xlsx, UnaryOperator.identity()), Workbooks.read(xlsx, Reader::cacheGlobals));
+        assertNull(GlobalsCache.getStyles(stylesDigest()));
+    }
+
+    @Test
+    public void stylesCachedFirstAreKept() {
+        byte[] digest = GlobalsCache.digest().digest(new byte[]{1, 2, 3});
+        StyleFormats first = new StyleFormats(new int[]{0}, new String[]{"General"}, "General");
+        StyleFormats second = new StyleFormats(new int[]{0}, new String[]{"General"}, "General");
+        assertSame(first, GlobalsCache.putStyles(digest, first));
+        assertSame(first, GlobalsCache.putStyles(digest, second));
+        assertSame(first, GlobalsCache.getStyles(digest));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeCapacityIsRejected() {
+        GlobalsCache.setCapacity(-1);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import io.cruder.excellent.exception.ExcelReadException;
+import io.cruder.excellent.util.DuplicateHeaderPolicy;
+import io.cruder.excellent.util.MissingColumnPolicy;
+import lombok.Data;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * TestHeaders: Duplicate headers fail or take the first or last column, missing columns are ignored or fail.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public class TestHeaders {
+
+    @ClassRule
+    public static final TemporaryFolder FOLDER = new TemporaryFolder();
+
+    private static Path duplicated;
+
+    @BeforeClass
+    public static void writeFile() throws IOException {
+        duplicated = FOLDER.getRoot().toPath().resolve("duplicated.csv");
+        Files.write(duplicated, "a,b,a,,\n1,2,3,4,5\n6,7,8,9,10\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<Map<String, String>> read(UnaryOperator<Reader<Map<String, String>>> options) {
+        try (Reader<Map<String, String>> reader = options.apply(Excel.lent(duplicated).firstRowAsHeader())) {
+            return reader.stream().collect(Collectors.toList());
+        }
+    }
+
+    private static Map<String, String> row(String... entries) {
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            row.put(entries[i], entries[i + 1]);
+        }
+        return row;
+    }
+
+    @Test
+    public void duplicateHeadersFailByDefault() {
+        try (Reader<Map<String, String>> reader = Excel.lent(duplicated).firstRowAsHeader()) {
+            reader.readRow();
+            fail("Duplicate header is read.");
+        } catch (IllegalStateException e) {
+            assertEquals("Duplicate header [a].", e.getMessage());
+        }
+    }
+
+    @Test
+    public void duplicateHeadersTakeFirstOrLastColumn() {
+        assertEquals(Arrays.asList(row("a", "1", "b", "2"), row("a", "6", "b", "7")),
+                read(reader -> reader.duplicateHeaders(DuplicateHeaderPolicy.FIRST)));
+        assertEquals(Arrays.asList(row("a", "3", "b", "2"), row("a", "8", "b", "7")),
+                read(reader -> reader.duplicateHeaders(DuplicateHeaderPolicy.LAST)));
+    }
+
+    @Test
+    public void missingColumnsAreIgnoredByDefault() {
+        try (Reader<Titled> reader = Excel.lent(duplicated, Titled.class).firstRowAsHeader()
+                .duplicateHeaders(DuplicateHeaderPolicy.LAST)) {
+            Titled titled = reader.readRow().orElseThrow(AssertionError::new);
+            assertEquals("3", titled.getA());
+            assertNull(titled.getZ());
+        }
+        assertEquals(Arrays.asList(row("b", "2"), row("b", "7")), read(reader -> reader.columns("b", "q")));
+    }
+
+    @Test
+    public void missingColumnsFailIfRequired() {
+        try (Reader<Titled> reader = Excel.lent(duplicated, Titled.class).firstRowAsHeader()
+                .duplicateHeaders(DuplicateHeaderPolicy.LAST).missingColumns(MissingColumnPolicy.FAIL)) {
+            reader.readRow();
+            fail("Missing column is read.");
+        } catch (ExcelReadException e) {
+            assertEquals("Missing columns [z].", e.getMessage());
+        }
+        try {
+            read(reader -> reader.columns("b", "q").missingColumns(MissingColumnPolicy.FAIL));
+            fail("Missing column is read.");
+        } catch (ExcelReadException e) {
+            assertEquals("Missing columns [q].", e.getMessage());
+        }
+    }
+
+    @Data
+    public static class Titled {
+        @ExcelColumn(title = "a")
+        private String a;
+        @ExcelColumn(title = "z")
+        private String z;
+    }
+}
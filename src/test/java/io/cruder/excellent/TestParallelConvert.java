@@ -0,0 +1,105 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import io.cruder.excellent.exception.ExcelReadException;
+import io.cruder.excellent.util.Converter;
+import io.cruder.excellent.util.DefaultConverter;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * TestParallelConvert: Rows converted by parallel workers equal rows converted one by one, failure of a worker is
+ * raised in either order.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public class TestParallelConvert {
+
+    /**
+     * Converter which fails on a row of the first batch, once other batches are converted.
+     */
+    private static final Converter FAILING = new Converter() {
+        @Override
+        public <T> T convert(List<String> headers, List<String> rowCells, Class<T> clazz) {
+            if ("s0r2".equals(rowCells.get(0))) {
+                try {
+                    // Reader waits for this batch, as other batches are converted.
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("Convert failure.");
+            }
+            return DefaultConverter.INSTANCE.convert(headers, rowCells, clazz);
+        }
+    };
+
+    @ClassRule
+    public static final TemporaryFolder FOLDER = new TemporaryFolder();
+
+    private static List<File> files;
+
+    @BeforeClass
+    public static void writeWorkbooks() throws IOException {
+        files = Arrays.asList(Workbooks.write(new HSSFWorkbook(), FOLDER.newFile("convert.xls")),
+                Workbooks.write(new XSSFWorkbook(), FOLDER.newFile("convert.xlsx")));
+    }
+
+    @Test
+    public void inRowOrderEqualsSequential() {
+        for (File file : files) {
+            assertEquals(file.getName(), Workbooks.read(file, UnaryOperator.identity()),
+                    Workbooks.read(file, reader -> reader.parallelConvert(2, true)));
+        }
+    }
+
+    @Test
+    public void outOfOrderReadsSameRows() {
+        for (File file : files) {
+            assertEquals(file.getName(), Workbooks.sorted(Workbooks.read(file, UnaryOperator.identity())),
+                    Workbooks.sorted(Workbooks.read(file, reader -> reader.parallelConvert(3, false))));
+        }
+    }
+
+    @Test
+    public void failureIsRaisedInEitherOrder() {
+        for (File file : files) {
+            for (boolean inRowOrder : new boolean[]{true, false}) {
+                try {
+                    Workbooks.read(file, reader -> reader.converter(FAILING).parallelConvert(2, inRowOrder));
+                    fail(file.getName() + " in row order " + inRowOrder + " is read.");
+                } catch (ExcelReadException e) {
+                    assertEquals(file.getName(), "Convert failure.", e.getCause().getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * TestParallelSheets: Sheets parsed in parallel read the rows of sheets parsed one by one.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public class TestParallelSheets {
+
+    @ClassRule
+    public static final TemporaryFolder FOLDER = new TemporaryFolder();
+
+    private static List<File> files;
+
+    @BeforeClass
+    public static void writeWorkbooks() throws IOException {
+        files = Arrays.asList(Workbooks.write(new HSSFWorkbook(), FOLDER.newFile("sheets.xls")),
+                Workbooks.write(new XSSFWorkbook(), FOLDER.newFile("sheets.xlsx")));
+    }
+
+    @Test
+    public void sequentialReadsEveryRow() {
+        for (File file : files) {
+            List<Map<String, String>> rows = Workbooks.read(file, UnaryOperator.identity());
+            // First row of each sheet is its header.
+            assertEquals(file.getName(), Workbooks.SHEETS * Workbooks.ROWS, rows.size());
+            assertEquals(file.getName(), "s0r1", rows.get(0).get("h0"));
+            assertEquals(file.getName(), "1.5", rows.get(0).get("h1"));
+            assertEquals(file.getName(), "s" + (Workbooks.SHEETS - 1) + "r" + Workbooks.ROWS,
+                    rows.get(rows.size() - 1).get("h0"));
+        }
+    }
+
+    @Test
+    public void inSheetOrderEqualsSequential() {
+        for (File file : files) {
+            assertEquals(file.getName(), Workbooks.read(file, UnaryOperator.identity()),
+                    Workbooks.read(file, reader -> reader.parallelSheets(true)));
+        }
+    }
+
+    @Test
+    public void outOfOrderReadsSameRows() {
+        for (File file : files) {
+            assertEquals(file.getName(), Workbooks.sorted(Workbooks.read(file, UnaryOperator.identity())),
+                    Workbooks.sorted(Workbooks.read(file, reader -> reader.parallelSheets(false))));
+        }
+    }
+}
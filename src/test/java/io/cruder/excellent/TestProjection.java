@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * TestProjection: Rows projected to some columns equal rows read whole and then projected.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public class TestProjection {
+
+    @ClassRule
+    public static final TemporaryFolder FOLDER = new TemporaryFolder();
+
+    private static List<File> files;
+
+    @BeforeClass
+    public static void writeWorkbooks() throws IOException {
+        files = Arrays.asList(Workbooks.write(new HSSFWorkbook(), FOLDER.newFile("projection.xls")),
+                Workbooks.write(new XSSFWorkbook(), FOLDER.newFile("projection.xlsx")));
+    }
+
+    private static List<Map<String, String>> projected(File file, String... titles) {
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (Map<String, String> row : Workbooks.read(file, UnaryOperator.identity())) {
+            Map<String, String> projected = new LinkedHashMap<>();
+            for (String title : titles) {
+                projected.put(title, row.get(title));
+            }
+            rows.add(projected);
+        }
+        return rows;
+    }
+
+    @Test
+    public void projectionEqualsProjectedSequential() {
+        for (File file : files) {
+            List<Map<String, String>> expected = projected(file, "h0", "h3");
+            assertEquals(file.getName(), expected, Workbooks.read(file, reader -> reader.columns("h3", "h0")));
+            assertEquals(file.getName(), expected,
+                    Workbooks.read(file, reader -> reader.columns("h3", "h0").parallelSheets(true).readAhead()));
+        }
+    }
+
+    @Test
+    public void cellsOfOtherColumnsAreLeftBlank() {
+        for (File file : files) {
+            List<List<String>> cells = new ArrayList<>();
+            Excel.lent(file).firstRowAsHeader().columns("h2", "h4").forEachRow(row -> cells.add(row.toList()));
+            List<Map<String, String>> rows = Workbooks.read(file, UnaryOperator.identity());
+            // Rows parsed before headers are known are whole, the last ones are parsed once they are. The one before
+            // the last has every cell written.
+            Map<String, String> row = rows.get(rows.size() - 2);
+            List<String> expected = Arrays.asList("", "", row.get("h2"), "", row.get("h4"), "");
+            List<String> rowCells = cells.get(cells.size() - 2);
+            assertEquals(file.getName(), expected, rowCells.subList(0, Math.min(rowCells.size(), 6)));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import lombok.Data;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * TestRawValues: Numeric cells bound from raw values keep digits their format hides, formula results of text stay
+ * text.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public class TestRawValues {
+
+    private static final double AMOUNT = 1234.5678;
+    private static final Date PAID = new Date(1583030045000L);
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private File write(Workbook workbook, String name) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        try (Workbook wb = workbook; OutputStream out = new FileOutputStream(file)) {
+            CellStyle money = wb.createCellStyle();
+            money.setDataFormat(wb.createDataFormat().getFormat("#,##0.00"));
+            CellStyle date = wb.createCellStyle();
+            date.setDataFormat(wb.createDataFormat().getFormat("yyyy-mm-dd"));
+            org.apache.poi.ss.usermodel.Sheet sheet = wb.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("amount");
+            header.createCell(1).setCellValue("exact");
+            header.createCell(2).setCellValue("paid");
+            Row row = sheet.createRow(1);
+            for (int c = 0; c < 2; c++) {
+                Cell cell = row.createCell(c);
+                cell.setCellValue(AMOUNT);
+                cell.setCellStyle(money);
+            }
+            Cell cell = row.createCell(2);
+            cell.setCellValue(PAID);
+            cell.setCellStyle(date);
+            wb.write(out);
+        }
+        return file;
+    }
+
+    @Test
+    public void rawValuesKeepDigitsOfFormattedNumbers() throws IOException {
+        for (File file : Arrays.asList(write(new HSSFWorkbook(), "raw.xls"), write(new XSSFWorkbook(), "raw.xlsx"))) {
+            Map<String, String> formatted = Excel.lent(file).firstRowAsHeader().readRow()
+                    .orElseThrow(AssertionError::new);
+            assertEquals(file.getName(), "1,234.57", formatted.get("amount"));
+
+            Payment raw = Excel.lent(file, Payment.class).firstRowAsHeader().rawValues().readRow()
+                    .orElseThrow(AssertionError::new);
+            assertEquals(file.getName(), AMOUNT, raw.getAmount(), 0);
+            assertEquals(file.getName(), BigDecimal.valueOf(AMOUNT), raw.getExact());
+            assertEquals(file.getName(), PAID, raw.getPaid());
+        }
+    }
+
+    @Test
+    public void stringFormulaResultsAreText() throws IOException {
+        File file = new File(folder.getRoot(), "formula.xlsx");
+        try (XSSFWorkbook wb = new XSSFWorkbook(); OutputStream out = new FileOutputStream(file)) {
+            Row row = wb.createSheet().createRow(0);
+            Cell cell = row.createCell(0);
+            cell.setCellFormula("\"00\"&\"123\"");
+            cell.setCellValue("00123");
+            cell = row.createCell(1);
+            cell.setCellFormula("\"1E3\"");
+            cell.setCellValue("1E3");
+            cell = row.createCell(2);
+            cell.setCellFormula("1+1");
+            cell.setCellValue(2);
+            wb.write(out);
+        }
+
+        List<Map<String, String>> rows = Excel.lent(file).headers("a", "b", "c").readAll()
+                .orElseThrow(AssertionError::new);
+        assertEquals(1, rows.size());
+        assertEquals("00123", rows.get(0).get("a"));
+        assertEquals("1E3", rows.get(0).get("b"));
+        assertEquals("2", rows.get(0).get("c"));
+    }
+
+    @Data
+    public static class Payment {
+        @ExcelColumn(title = "amount")
+        private double amount;
+        @ExcelColumn(title = "exact")
+        private BigDecimal exact;
+        @ExcelColumn(title = "paid")
+        private Date paid;
+    }
+}
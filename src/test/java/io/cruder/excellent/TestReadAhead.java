@@ -0,0 +1,82 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * TestReadAhead: Rows read ahead equal rows read sequentially, cancel stops reading.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public class TestReadAhead {
+
+    @ClassRule
+    public static final TemporaryFolder FOLDER = new TemporaryFolder();
+
+    private static List<File> files;
+
+    @BeforeClass
+    public static void writeWorkbooks() throws IOException {
+        files = Arrays.asList(Workbooks.write(new HSSFWorkbook(), FOLDER.newFile("ahead.xls")),
+                Workbooks.write(new XSSFWorkbook(), FOLDER.newFile("ahead.xlsx")));
+    }
+
+    @Test
+    public void readAheadEqualsSequential() {
+        for (File file : files) {
+            assertEquals(file.getName(), Workbooks.read(file, UnaryOperator.identity()),
+                    Workbooks.read(file, Reader::readAhead));
+        }
+    }
+
+    @Test
+    public void cancelStopsReading() {
+        for (File file : files) {
+            for (boolean ahead : new boolean[]{false, true}) {
+                Reader<Map<String, String>> reader = Excel.lent(file).firstRowAsHeader();
+                if (ahead) {
+                    reader.readAhead();
+                }
+                AtomicInteger rows = new AtomicInteger();
+                reader.forEachRow(row -> {
+                    if (rows.incrementAndGet() == 100) {
+                        reader.cancel();
+                    }
+                });
+                assertEquals(file.getName() + " ahead " + ahead, 100, rows.get());
+                assertFalse(file.getName() + " ahead " + ahead, reader.readRow().isPresent());
+            }
+        }
+    }
+}
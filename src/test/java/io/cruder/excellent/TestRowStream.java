@@ -0,0 +1,103 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * TestRowStream: Parallel streams and iterators read every row, stream size is estimated from sheet dimensions.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public class TestRowStream {
+
+    @ClassRule
+    public static final TemporaryFolder FOLDER = new TemporaryFolder();
+
+    private static List<File> files;
+
+    @BeforeClass
+    public static void writeWorkbooks() throws IOException {
+        files = Arrays.asList(Workbooks.write(new HSSFWorkbook(), FOLDER.newFile("stream.xls")),
+                Workbooks.write(new XSSFWorkbook(), FOLDER.newFile("stream.xlsx")));
+    }
+
+    @Test
+    public void parallelStreamEqualsSequential() {
+        for (File file : files) {
+            assertEquals(file.getName(), Workbooks.read(file, UnaryOperator.identity()),
+                    Excel.lent(file).firstRowAsHeader().stream().parallel().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void hasNextTwiceKeepsRows() {
+        for (File file : files) {
+            List<Map<String, String>> rows = new ArrayList<>();
+            Iterator<Map<String, String>> iterator = Excel.lent(file).firstRowAsHeader().iterator();
+            while (iterator.hasNext() && iterator.hasNext()) {
+                rows.add(iterator.next());
+            }
+            assertEquals(file.getName(), Workbooks.read(file, UnaryOperator.identity()), rows);
+        }
+    }
+
+    @Test
+    public void sizeIsEstimatedFromDimensions() {
+        for (File file : files) {
+            for (boolean ahead : new boolean[]{false, true}) {
+                Reader<Map<String, String>> reader = Excel.lent(file).firstRowAsHeader();
+                if (ahead) {
+                    reader.readAhead();
+                }
+                Spliterator<Map<String, String>> rows = reader.stream().spliterator();
+                long count = 0;
+                // Estimated while sheets are parsed, ahead or not.
+                while (rows.tryAdvance(row -> {
+                })) {
+                    if (count++ == 0) {
+                        long estimate = rows.estimateSize();
+                        // Header rows are counted, as dimensions do not tell them.
+                        assertTrue(file.getName() + " estimate " + estimate,
+                                estimate >= Workbooks.SHEETS * Workbooks.ROWS
+                                        && estimate <= Workbooks.SHEETS * (Workbooks.ROWS + 1));
+                    }
+                }
+                assertEquals(file.getName(), Workbooks.SHEETS * Workbooks.ROWS, count);
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * TestSheetSelection: Sheets selected by name or number are read, the rest are not, numbers count worksheets only.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public class TestSheetSelection {
+
+    private static final int BOUND_SHEET_SID = 0x85;
+    private static final int BOF_SID = 0x809;
+
+    @ClassRule
+    public static final TemporaryFolder FOLDER = new TemporaryFolder();
+
+    private static List<File> files;
+    private static File chart;
+
+    @BeforeClass
+    public static void writeWorkbooks() throws IOException {
+        files = Arrays.asList(Workbooks.write(new HSSFWorkbook(), FOLDER.newFile("select.xls")),
+                Workbooks.write(new XSSFWorkbook(), FOLDER.newFile("select.xlsx")));
+        chart = writeChart(FOLDER.newFile("chart.xls"));
+    }
+
+    /**
+     * Write sheets "first", "chart" and "second", "chart" patched into a chart sheet, which poi can not create.
+     */
+    private static File writeChart(File file) throws IOException {
+        byte[] bytes;
+        try (HSSFWorkbook wb = new HSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (String name : Arrays.asList("first", "chart", "second")) {
+                org.apache.poi.ss.usermodel.Sheet sheet = wb.createSheet(name);
+                if (!name.equals("chart")) {
+                    sheet.createRow(0).createCell(0).setCellValue("h");
+                    sheet.createRow(1).createCell(0).setCellValue(name);
+                }
+            }
+            wb.write(out);
+            bytes = out.toByteArray();
+        }
+        try (POIFSFileSystem fs = new POIFSFileSystem(new ByteArrayInputStream(bytes));
+             OutputStream out = new FileOutputStream(file)) {
+            byte[] book;
+            try (InputStream in = fs.createDocumentInputStream("Workbook")) {
+                book = IOUtils.toByteArray(in);
+            }
+            int chartBof = -1;
+            for (int p = 0; p + 4 <= book.length; p += 4 + uShort(book, p + 2)) {
+                int sid = uShort(book, p);
+                int length = uShort(book, p + 2);
+                if (sid == BOUND_SHEET_SID
+                        && new String(book, p + 12, length - 8, StandardCharsets.ISO_8859_1).equals("chart")) {
+                    // Sheet type of chart, and offset of its BOF.
+                    book[p + 9] = 2;
+                    chartBof = uShort(book, p + 4) | uShort(book, p + 6) << 16;
+                } else if (sid == BOF_SID && p == chartBof) {
+                    // Substream of chart.
+                    book[p + 6] = 0x20;
+                    book[p + 7] = 0;
+                }
+            }
+            fs.createOrUpdateDocument(new ByteArrayInputStream(book), "Workbook");
+            fs.writeFilesystem(out);
+        }
+        return file;
+    }
+
+    private static int uShort(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8;
+    }
+
+    /**
+     * @return sheet of each row as "{sheetNo}{sheetName}", in order read, distinct.
+     */
+    private static List<String> sheets(File file, UnaryOperator<Reader<Map<String, String>>> options) {
+        Set<String> sheets = new LinkedHashSet<>();
+        options.apply(Excel.lent(file).firstRowAsHeader()).forEachRow(row -> {
+            sheets.add(row.getSheet().getSheetNo() + row.getSheet().getSheetName());
+            // Rows of sheet are the rows written to it.
+            assertEquals("s" + (row.getSheet().getSheetNo() - 1) + "r" + row.getRowNum(), row.getString(0));
+        });
+        return new ArrayList<>(sheets);
+    }
+
+    @Test
+    public void everySheetIsReadByDefault() {
+        for (File file : files) {
+            assertEquals(file.getName(), Arrays.asList("1S0", "2S1", "3S2"), sheets(file, UnaryOperator.identity()));
+        }
+    }
+
+    @Test
+    public void sheetsSelectedByName() {
+        for (File file : files) {
+            assertEquals(file.getName(), Arrays.asList("2S1"), sheets(file, reader -> reader.sheetNames("S1")));
+            assertEquals(file.getName(), Arrays.asList("1S0", "3S2"),
+                    sheets(file, reader -> reader.sheetNames("S2", "S0", "none")));
+        }
+    }
+
+    @Test
+    public void sheetsSelectedByNumber() {
+        for (File file : files) {
+            assertEquals(file.getName(), Arrays.asList("3S2"), sheets(file, reader -> reader.sheetNos(3)));
+            assertEquals(file.getName(), Arrays.asList("1S0", "2S1"), sheets(file, reader -> reader.sheetNos(2, 1, 9)));
+        }
+    }
+
+    @Test
+    public void sheetsSelectedByNameOrNumber() {
+        for (File file : files) {
+            assertEquals(file.getName(), Arrays.asList("1S0", "3S2"),
+                    sheets(file, reader -> reader.sheetNames("S2").sheetNos(1)));
+            List<Map<String, String>> rows = Workbooks.read(file, reader -> reader.sheetNames("S1"));
+            assertEquals(file.getName(), Workbooks.ROWS, rows.size());
+            assertEquals(file.getName(), "s1r1", rows.get(0).get("h0"));
+        }
+    }
+
+    @Test
+    public void parallelSheetsReadSelectedSheets() {
+        for (File file : files) {
+            assertEquals(file.getName(), Arrays.asList("1S0", "3S2"),
+                    sheets(file, reader -> reader.sheetNames("S2").sheetNos(1).parallelSheets(true)));
+            assertEquals(file.getName(), Arrays.asList("2S1"),
+                    sheets(file, reader -> reader.sheetNos(2).parallelSheets(false)));
+        }
+    }
+
+    @Test
+    public void chartSheetsAreNotNumbered() {
+        List<String> rows = new ArrayList<>();
+        Excel.lent(chart).firstRowAsHeader().forEachRow(row -> rows.add(row.getSheet().getSheetNo()
+                + row.getSheet().getSheetName() + "=" + row.getString(0)));
+        assertEquals(Arrays.asList("1first=first", "2second=second"), rows);
+
+        rows.clear();
+        Excel.lent(chart).firstRowAsHeader().sheetNos(2).forEachRow(row -> rows.add(row.getString(0)));
+        assertEquals(Arrays.asList("second"), rows);
+
+        rows.clear();
+        Excel.lent(chart).firstRowAsHeader().parallelSheets(true).forEachRow(row -> rows.add(row.getString(0)));
+        assertEquals(Arrays.asList("first", "second"), rows);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * TestSkipLimitFilter: Rows skipped, limited and filtered equal the same operations on all rows read.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public class TestSkipLimitFilter {
+
+    @ClassRule
+    public static final TemporaryFolder FOLDER = new TemporaryFolder();
+
+    private static List<File> files;
+    private static List<String> codes;
+
+    @BeforeClass
+    public static void writeWorkbooks() throws IOException {
+        files = Arrays.asList(Workbooks.write(new HSSFWorkbook(), FOLDER.newFile("rows.xls")),
+                Workbooks.write(new XSSFWorkbook(), FOLDER.newFile("rows.xlsx")));
+        codes = codes(files.get(0), UnaryOperator.identity());
+    }
+
+    private static List<String> codes(File file, UnaryOperator<Reader<Map<String, String>>> options) {
+        return Workbooks.read(file, options).stream().map(row -> row.get("h0")).collect(Collectors.toList());
+    }
+
+    @Test
+    public void skipAndLimit() {
+        int rows = codes.size();
+        for (File file : files) {
+            assertEquals(file.getName(), codes.subList(10, 15), codes(file, reader -> reader.skip(10).limit(5)));
+            assertEquals(file.getName(), codes.subList(10, 15),
+                    codes(file, reader -> reader.skip(10).limit(5).readAhead()));
+            // Rows cross sheets.
+            assertEquals(file.getName(), codes.subList(1400, 1700),
+                    codes(file, reader -> reader.skip(1400).limit(300).parallelConvert(2, true)));
+            assertEquals(file.getName(), codes.subList(rows - 3, rows), codes(file, reader -> reader.skip(rows - 3)));
+            assertEquals(file.getName(), Collections.emptyList(), codes(file, reader -> reader.limit(0)));
+            assertEquals(file.getName(), Collections.emptyList(), codes(file, reader -> reader.skip(rows)));
+        }
+    }
+
+    @Test
+    public void filterBeforeSkipAndLimit() {
+        List<String> expected = codes.stream().filter(code -> code.endsWith("7")).skip(3).limit(4)
+                .collect(Collectors.toList());
+        for (File file : files) {
+            assertEquals(file.getName(), expected, codes(file, reader -> reader
+                    .filter(row -> row.getString(0).endsWith("7")).skip(3).limit(4)));
+            assertEquals(file.getName(), expected, codes(file, reader -> reader
+                    .filter(row -> row.getString(0).endsWith("7")).skip(3).limit(4).readAhead()));
+            assertEquals(file.getName(), expected, codes(file, reader -> reader
+                    .filter(row -> row.getString(0).endsWith("7")).skip(3).limit(4).parallelConvert(2, true)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeSkipIsRejected() {
+        Excel.lent(files.get(0)).skip(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeLimitIsRejected() {
+        Excel.lent(files.get(0)).limit(-1);
+    }
+}
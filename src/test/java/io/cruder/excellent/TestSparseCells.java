@@ -0,0 +1,86 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * TestSparseCells: Cells of xlsx rows with gaps keep the columns of their references.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public class TestSparseCells {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void sparseCellsKeepTheirColumns() throws IOException {
+        Path path = folder.newFile("sparse.xlsx").toPath();
+        try (XSSFWorkbook wb = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(path)) {
+            org.apache.poi.ss.usermodel.Sheet sheet = wb.createSheet();
+            Row header = sheet.createRow(0);
+            for (int c = 0; c < 40; c++) {
+                header.createCell(c).setCellValue("h" + c);
+            }
+            for (int r = 1; r <= 3; r++) {
+                Row row = sheet.createRow(r);
+                row.createCell(r).setCellValue("a" + r);
+                row.createCell(r * 10).setCellValue(r * 10);
+            }
+            wb.write(out);
+        }
+
+        List<Map<String, String>> rows;
+        try (Reader<Map<String, String>> reader = Excel.lent(path).firstRowAsHeader()) {
+            rows = reader.stream().collect(Collectors.toList());
+        }
+        assertEquals(3, rows.size());
+        for (int r = 1; r <= 3; r++) {
+            Map<String, String> row = rows.get(r - 1);
+            assertEquals(40, row.size());
+            for (int c = 0; c < 40; c++) {
+                String expected = c == r ? "a" + r : c == r * 10 ? String.valueOf(r * 10) : "";
+                assertEquals("row " + r + " column " + c, expected, row.get("h" + c));
+            }
+        }
+
+        List<String> cells = new ArrayList<>();
+        try (Reader<Map<String, String>> reader = Excel.lent(path).firstRowAsHeader()) {
+            reader.forEachRow(row -> cells.add(row.getCellType(1) + " " + row.getCellType(2) + " "
+                    + row.getCellType(10) + " " + row.getNumber(10)));
+        }
+        assertEquals(Arrays.asList("STRING BLANK NUMERIC 10.0", "BLANK STRING BLANK 0.0",
+                "BLANK BLANK BLANK 0.0"), cells);
+    }
+}
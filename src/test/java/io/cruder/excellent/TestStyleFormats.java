@@ -0,0 +1,104 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import io.cruder.excellent.util.StyleFormats;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * TestStyleFormats: Numbers formatted by classified styles equal numbers formatted by poi, numbers of xlsx without
+ * styles are read as written.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public class TestStyleFormats {
+
+    private static final int[] FORMAT_INDEXES = {0, 49, 2, 10, 14, 164};
+    private static final String[] FORMAT_STRINGS = {"General", "@", "0.00", "0.00%", "m/d/yy", "#,##0.000"};
+
+    private static final double[] VALUES = {0, -0.0, 1, -1, 0.1, 0.1 + 0.2, 1.0 / 3, 2.5, -123.456, 1e-7, 1e-10,
+            123456789, 99999999999.0, 100000000000.0, 1e15, 1234567890123456789.0, 1e20, -1e-300, Double.MIN_VALUE,
+            Double.MAX_VALUE, 43892.10648148148, 0.5E-9, 12345.678901234567};
+
+    @Test
+    public void formatsEqualDataFormatter() {
+        StyleFormats formats = new StyleFormats(FORMAT_INDEXES, FORMAT_STRINGS, null);
+        DataFormatter formatter = new DataFormatter();
+        for (double value : VALUES) {
+            for (int style = 0; style < FORMAT_INDEXES.length; style++) {
+                assertEquals(value + " of " + FORMAT_STRINGS[style],
+                        formatter.formatRawCellContents(value, FORMAT_INDEXES[style], FORMAT_STRINGS[style]),
+                        formats.format(value, style));
+            }
+            // Styles out of table are general.
+            assertEquals(String.valueOf(value), formatter.formatRawCellContents(value, 0, "General"),
+                    formats.format(value, FORMAT_INDEXES.length));
+        }
+    }
+
+    @Test
+    public void numbersOfXlsxWithoutStylesAreReadAsWritten() throws IOException {
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            Row row = wb.createSheet().createRow(0);
+            row.createCell(0).setCellValue(0.1 + 0.2);
+            row.createCell(1).setCellValue(1e-7);
+            row.createCell(2).setCellValue(10);
+            row.createCell(3).setCellValue("t");
+            wb.write(written);
+        }
+        ByteArrayOutputStream stripped = new ByteArrayOutputStream();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(written.toByteArray()));
+             ZipOutputStream out = new ZipOutputStream(stripped)) {
+            ZipEntry entry;
+            byte[] buffer = new byte[8192];
+            while ((entry = in.getNextEntry()) != null) {
+                if (entry.getName().equals("xl/styles.xml")) {
+                    continue;
+                }
+                out.putNextEntry(new ZipEntry(entry.getName()));
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, read);
+                }
+                out.closeEntry();
+            }
+        }
+
+        List<String> cells = new ArrayList<>();
+        try (Reader<Map<String, String>> reader = Excel.lent(new ByteArrayInputStream(stripped.toByteArray()))) {
+            reader.forEachRow(row -> cells.addAll(row.toList()));
+        }
+        assertEquals(Arrays.asList("0.30000000000000004", "1.0E-7", "10.0", "t"), cells);
+    }
+}
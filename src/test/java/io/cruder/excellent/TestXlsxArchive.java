@@ -0,0 +1,86 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import io.cruder.excellent.exception.ExcelReadException;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * TestXlsxArchive: Xlsx read from path, channel or stream reads the same rows, a truncated archive is raised.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public class TestXlsxArchive {
+
+    @ClassRule
+    public static final TemporaryFolder FOLDER = new TemporaryFolder();
+
+    private static Path xlsx;
+
+    @BeforeClass
+    public static void writeWorkbook() throws IOException {
+        xlsx = Workbooks.write(new XSSFWorkbook(), FOLDER.newFile("archive.xlsx")).toPath();
+    }
+
+    @Test
+    public void pathChannelAndStreamReadSameRows() throws IOException {
+        List<Map<String, String>> expected = Workbooks.read(xlsx.toFile(), UnaryOperator.identity());
+        assertEquals(Workbooks.SHEETS * Workbooks.ROWS, expected.size());
+        assertEquals(expected, Excel.lent(xlsx).firstRowAsHeader().stream().collect(Collectors.toList()));
+        try (FileChannel channel = FileChannel.open(xlsx, StandardOpenOption.READ)) {
+            assertEquals(expected, Excel.lent(channel, null).firstRowAsHeader().stream()
+                    .collect(Collectors.toList()));
+        }
+        try (InputStream in = Files.newInputStream(xlsx)) {
+            assertEquals(expected, Excel.lent(in).firstRowAsHeader().stream().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void truncatedArchiveRaisesReadException() throws IOException {
+        byte[] whole = Files.readAllBytes(xlsx);
+        for (int percent = 10; percent < 100; percent += 10) {
+            byte[] truncated = Arrays.copyOf(whole, whole.length * percent / 100);
+            try {
+                Excel.lent(new ByteArrayInputStream(truncated)).stream().count();
+                fail("Xlsx truncated to " + percent + "% is read.");
+            } catch (ExcelReadException e) {
+                // Truncated archive is raised rather than read as a shorter one.
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * TestXlsxWriter: Rows written to xlsx read back as they are, by this reader and by poi, long and decimal values
+ * keep all their digits.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+public class TestXlsxWriter {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    static final List<Ledger> LEDGERS = Arrays.asList(
+            new Ledger("big", 9007199254740993L, 1234567890123456789L, new BigInteger("123456789012345678901234"),
+                    new BigDecimal("12345678901234567.89"), Integer.MIN_VALUE, 0.1),
+            new Ledger("a, \"quoted\"\nline", 42L, -7L, BigInteger.TEN, new BigDecimal("1234.5"), 3, 2.5),
+            new Ledger("blank", Long.MIN_VALUE, null, null, null, 0, 0));
+
+    private static List<Map<String, String>> read(Path path) {
+        try (Reader<Map<String, String>> reader = Excel.lent(path).firstRowAsHeader()) {
+            return reader.stream().collect(Collectors.toList());
+        }
+    }
+
+    private static Map<String, Object> row(Object... entries) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            row.put((String) entries[i], entries[i + 1]);
+        }
+        return row;
+    }
+
+    @Test
+    public void mapsRoundTrip() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("maps.xlsx");
+        try (Writer<Map<String, ?>> writer = Excel.writer(path)) {
+            writer.write(row("long", 42L, "decimal", new BigDecimal("0.1"), "double", 1.5, "text", "<v>&amp;",
+                    "flag", true, "blank", null));
+        }
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("long", "42");
+        expected.put("decimal", "0.1");
+        expected.put("double", "1.5");
+        expected.put("text", "<v>&amp;");
+        expected.put("flag", "TRUE");
+        expected.put("blank", "");
+        assertEquals(Arrays.asList(expected), read(path));
+    }
+
+    @Test
+    public void beansRoundTrip() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("ledger.xlsx");
+        try (Writer<Ledger> writer = Excel.writer(path, Ledger.class)) {
+            LEDGERS.forEach(writer::write);
+        }
+        try (Reader<Ledger> reader = Excel.lent(path, Ledger.class).firstRowAsHeader()) {
+            assertEquals(LEDGERS, reader.stream().collect(Collectors.toList()));
+        }
+        // Null fields are written as no cell at all, and read back by column of the cells after.
+        try (InputStream in = Files.newInputStream(path); XSSFWorkbook wb = new XSSFWorkbook(in)) {
+            XSSFRow blank = wb.getSheetAt(0).getRow(3);
+            for (int c = 2; c <= 4; c++) {
+                assertNull(blank.getCell(c));
+            }
+            assertEquals(0, blank.getCell(5).getNumericCellValue(), 0);
+        }
+    }
+
+    @Test
+    public void numbersDoubleCanNotHoldAreText() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("ledger.xlsx");
+        try (Writer<Ledger> writer = Excel.writer(path, Ledger.class)) {
+            LEDGERS.forEach(writer::write);
+        }
+        try (InputStream in = Files.newInputStream(path); XSSFWorkbook wb = new XSSFWorkbook(in)) {
+            XSSFSheet sheet = wb.getSheetAt(0);
+            assertEquals(CellType.STRING, sheet.getRow(1).getCell(1).getCellType());
+            assertEquals("9007199254740993", sheet.getRow(1).getCell(1).getStringCellValue());
+            assertEquals("12345678901234567.89", sheet.getRow(1).getCell(4).getStringCellValue());
+            assertEquals(CellType.NUMERIC, sheet.getRow(2).getCell(1).getCellType());
+            assertEquals(42, sheet.getRow(2).getCell(1).getNumericCellValue(), 0);
+            assertEquals(1234.5, sheet.getRow(2).getCell(4).getNumericCellValue(), 0);
+            assertEquals(0.1, sheet.getRow(1).getCell(6).getNumericCellValue(), 0);
+        }
+
+        Path maps = folder.getRoot().toPath().resolve("maps.xlsx");
+        try (Writer<Map<String, ?>> writer = Excel.writer(maps)) {
+            writer.write(row("long", 9007199254740993L, "decimal", new BigDecimal("12345678901234567.89")));
+        }
+        assertEquals(Arrays.asList(row("long", "9007199254740993", "decimal", "12345678901234567.89")), read(maps));
+    }
+
+    @Test
+    public void failedRowLeavesValidSheet() throws IOException {
+        Object broken = new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException("Encode failure.");
+            }
+        };
+        for (int sharedStrings : new int[]{0, 16}) {
+            Path path = folder.getRoot().toPath().resolve("failed" + sharedStrings + ".xlsx");
+            try (Writer<Map<String, ?>> writer = Excel.writer(path).sharedStrings(sharedStrings)) {
+                writer.write(row("code", "a", "note", "first"));
+                try {
+                    writer.write(row("code", "dropped", "note", broken));
+                    fail("Row failed to encode is written.");
+                } catch (IllegalStateException e) {
+                    // Cells written before the failure are dropped.
+                }
+                writer.write(row("code", "b", "note", "second"));
+            }
+            assertEquals(Arrays.asList(row("code", "a", "note", "first"), row("code", "b", "note", "second")),
+                    read(path));
+            try (InputStream in = Files.newInputStream(path); XSSFWorkbook wb = new XSSFWorkbook(in)) {
+                assertEquals(2, wb.getSheetAt(0).getLastRowNum());
+                assertEquals("second", wb.getSheetAt(0).getRow(2).getCell(1).getStringCellValue());
+            }
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Ledger {
+        @ExcelColumn(order = 1)
+        private String name;
+        @ExcelColumn(order = 2)
+        private long id;
+        @ExcelColumn(order = 3)
+        private Long serial;
+        @ExcelColumn(order = 4)
+        private BigInteger account;
+        @ExcelColumn(order = 5)
+        private BigDecimal amount;
+        @ExcelColumn(order = 6)
+        private int count;
+        @ExcelColumn(order = 7)
+        private double rate;
+    }
+}
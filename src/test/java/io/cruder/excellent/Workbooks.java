@@ -0,0 +1,110 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package io.cruder.excellent;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Workbooks: Workbooks written by poi for tests, sheets of text, number, date, money, blank and boolean columns.
+ *
+ * @author cruder
+ * @since 2020-03-26
+ */
+final class Workbooks {
+
+    static final int SHEETS = 3;
+    static final int ROWS = 1500;
+    static final int COLUMNS = 6;
+
+    private Workbooks() {
+    }
+
+    /**
+     * Write sheets S0, S1... of a header row "h0", "h1"... and {@link #ROWS} rows, the first cell of which is
+     * "s{sheet}r{row}".
+     *
+     * @param workbook empty workbook, closed after written
+     * @param file     file written
+     * @return file written
+     */
+    static File write(Workbook workbook, File file) throws IOException {
+        try (Workbook wb = workbook; OutputStream out = new FileOutputStream(file)) {
+            CellStyle date = wb.createCellStyle();
+            date.setDataFormat(wb.createDataFormat().getFormat("yyyy-mm-dd"));
+            CellStyle money = wb.createCellStyle();
+            money.setDataFormat(wb.createDataFormat().getFormat("#,##0.00"));
+            for (int s = 0; s < SHEETS; s++) {
+                Sheet sheet = wb.createSheet("S" + s);
+                Row header = sheet.createRow(0);
+                for (int c = 0; c < COLUMNS; c++) {
+                    header.createCell(c).setCellValue("h" + c);
+                }
+                for (int r = 1; r <= ROWS; r++) {
+                    Row row = sheet.createRow(r);
+                    row.createCell(0).setCellValue("s" + s + "r" + r);
+                    row.createCell(1).setCellValue(r * 1.5);
+                    if (r % 3 != 0) {
+                        Cell cell = row.createCell(2);
+                        cell.setCellValue(new Date(1583030000000L + r * 86400000L));
+                        cell.setCellStyle(date);
+                    }
+                    Cell cell = row.createCell(3);
+                    cell.setCellValue(r * 1234.567);
+                    cell.setCellStyle(money);
+                    row.createCell(4).setCellValue(r % 7 == 0 ? "" : "t" + (r % 11));
+                    row.createCell(5).setCellValue(r % 2 == 0);
+                }
+            }
+            wb.write(out);
+        }
+        return file;
+    }
+
+    /**
+     * Read all rows of file as maps, the first row of each sheet is its header.
+     *
+     * @param file    file read
+     * @param options options applied to reader
+     * @return rows read
+     */
+    static List<Map<String, String>> read(File file, UnaryOperator<Reader<Map<String, String>>> options) {
+        return options.apply(Excel.lent(file).firstRowAsHeader()).stream().collect(Collectors.toList());
+    }
+
+    /**
+     * @return text of rows sorted, for rows of which the order is not kept.
+     */
+    static List<String> sorted(List<Map<String, String>> rows) {
+        List<String> texts = rows.stream().map(Object::toString).collect(Collectors.toList());
+        Collections.sort(texts);
+        return texts;
+    }
+}